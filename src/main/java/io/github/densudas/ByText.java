@@ -0,0 +1,137 @@
+package io.github.densudas;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.List;
+
+/**
+ * Locates elements by their text content. Text is matched in the browser during the shadowRoot
+ * traversal, only matching elements are returned
+ *
+ * <pre>{@code
+ * ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+ * WebElement button = shadowRootSearch.findElement(ByText.contains("Save").within("button"));
+ * }</pre>
+ *
+ * Candidates are parent elements of text nodes (or their closest ancestor matching {@link
+ * #within(String)}), matched against their whole textContent
+ */
+public class ByText extends By {
+
+  static final String EXACT = "exact";
+  static final String CONTAINS = "contains";
+  static final String REGEX = "regex";
+  static final String NORMALIZED = "normalized";
+
+  private final String mode;
+  private final String text;
+  private final String restriction;
+
+  private ByText(String mode, String text, String restriction) {
+    if (text == null) {
+      throw new IllegalArgumentException("Cannot find elements when the text is null.");
+    }
+    this.mode = mode;
+    this.text = text;
+    this.restriction = restriction;
+  }
+
+  /**
+   * Matches elements which trimmed text content equals to text
+   *
+   * @param text text
+   * @return {@link ByText} locator
+   */
+  public static ByText exact(String text) {
+    return new ByText(EXACT, text, null);
+  }
+
+  /**
+   * Matches elements which text content contains text
+   *
+   * @param text text
+   * @return {@link ByText} locator
+   */
+  public static ByText contains(String text) {
+    return new ByText(CONTAINS, text, null);
+  }
+
+  /**
+   * Matches elements which text content matches JavaScript regular expression
+   *
+   * @param regex JavaScript regular expression
+   * @return {@link ByText} locator
+   */
+  public static ByText matching(String regex) {
+    return new ByText(REGEX, regex, null);
+  }
+
+  /**
+   * Matches elements which text content equals to text after whitespaces are collapsed and trimmed
+   * in both of them
+   *
+   * @param text text
+   * @return {@link ByText} locator
+   */
+  public static ByText normalized(String text) {
+    return new ByText(NORMALIZED, text, null);
+  }
+
+  /**
+   * Restricts matched elements to a tag name or css selector
+   *
+   * @param cssSelector tag name or css selector
+   * @return {@link ByText} locator
+   */
+  public ByText within(String cssSelector) {
+    return new ByText(mode, text, cssSelector);
+  }
+
+  String getMode() {
+    return mode;
+  }
+
+  String getText() {
+    return text;
+  }
+
+  String getRestriction() {
+    return restriction;
+  }
+
+  String getLocatorType() {
+    return "text" + Character.toUpperCase(mode.charAt(0)) + mode.substring(1);
+  }
+
+  String getLocator() {
+    String quotedText = '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    return restriction == null ? quotedText : quotedText + " within " + restriction;
+  }
+
+  @Override
+  public List<WebElement> findElements(SearchContext context) {
+    try {
+      if (context instanceof WebDriver) {
+        return new ShadowRootSearch((WebDriver) context).findElements(this);
+      } else if (context instanceof WebElement && context instanceof WrapsDriver) {
+        WebDriver driver = ((WrapsDriver) context).getWrappedDriver();
+        return new ShadowRootSearch(driver).findElements((WebElement) context, this);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new WebDriverException(e);
+    }
+    throw new IllegalArgumentException("Unsupported search context: " + context);
+  }
+
+  @Override
+  public String toString() {
+    return "By." + getLocatorType() + ": " + getLocator();
+  }
+}
@@ -0,0 +1,88 @@
+package io.github.densudas;
+
+import org.openqa.selenium.WebElement;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Elements with path decoded lazily from the compact format returned by {@code
+ * compactElementsWithPath}: a table of distinct paths and a path index for each element. Elements
+ * of the same shadowRoot share one path instance, maps are built on first access. The list is
+ * mutable like the {@link ArrayList} it replaces
+ */
+class CompactElementsWithPath extends AbstractList<Map<String, Object>> {
+
+  private static final int DECODED = -1;
+
+  private final List<String> paths;
+  private final List<Number> pathIndexes;
+  private final List<WebElement> elements;
+  private final Consumer<WebElement> elementFixer;
+  private final List<Map<String, Object>> elementsWithPath;
+  private final List<Integer> sourceIndexes;
+
+  CompactElementsWithPath(
+      List<String> paths,
+      List<Number> pathIndexes,
+      List<WebElement> elements,
+      Consumer<WebElement> elementFixer) {
+    this.paths = paths;
+    this.pathIndexes = pathIndexes;
+    this.elements = elements;
+    this.elementFixer = elementFixer;
+    this.elementsWithPath = new ArrayList<>(Collections.nCopies(elements.size(), null));
+    this.sourceIndexes = new ArrayList<>(elements.size());
+    for (int i = 0; i < elements.size(); i++) {
+      sourceIndexes.add(i);
+    }
+  }
+
+  @Override
+  public synchronized Map<String, Object> get(int index) {
+    int sourceIndex = sourceIndexes.get(index);
+    if (sourceIndex != DECODED) {
+      WebElement element = elements.get(sourceIndex);
+      elementFixer.accept(element);
+      Map<String, Object> elementWithPath = new HashMap<>();
+      elementWithPath.put("element", element);
+      elementWithPath.put("elementPath", paths.get(pathIndexes.get(sourceIndex).intValue()));
+      elementsWithPath.set(index, elementWithPath);
+      sourceIndexes.set(index, DECODED);
+    }
+    return elementsWithPath.get(index);
+  }
+
+  @Override
+  public synchronized Map<String, Object> set(int index, Map<String, Object> elementWithPath) {
+    Map<String, Object> previous = get(index);
+    elementsWithPath.set(index, elementWithPath);
+    return previous;
+  }
+
+  @Override
+  public synchronized void add(int index, Map<String, Object> elementWithPath) {
+    elementsWithPath.add(index, elementWithPath);
+    sourceIndexes.add(index, DECODED);
+    modCount++;
+  }
+
+  @Override
+  public synchronized Map<String, Object> remove(int index) {
+    Map<String, Object> previous = get(index);
+    elementsWithPath.remove(index);
+    sourceIndexes.remove(index);
+    modCount++;
+    return previous;
+  }
+
+  @Override
+  public synchronized int size() {
+    return elementsWithPath.size();
+  }
+}
@@ -0,0 +1,37 @@
+package io.github.densudas;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link org.openqa.selenium.WebElement} or {@code List<WebElement>} field of a page object
+ * to be located by {@link ShadowRootSearch} in every shadowRoot. Exactly one locator has to be
+ * set. Fields are initialized by {@link ShadowPageFactory#initElements(ShadowRootSearch, Object)}
+ *
+ * <pre>{@code
+ * @FindByShadow(css = "button.save")
+ * private WebElement saveButton;
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface FindByShadow {
+
+  String css() default "";
+
+  String xpath() default "";
+
+  String id() default "";
+
+  String className() default "";
+
+  String name() default "";
+
+  String tagName() default "";
+
+  String linkText() default "";
+
+  String partialLinkText() default "";
+}
@@ -0,0 +1,110 @@
+package io.github.densudas;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers shadowRoot path where each selector was last found on each page. Single element
+ * lookups of {@link ShadowRootSearch} search hinted shadowRoot first and fall back to the full
+ * walk, so hints stay correct when elements are re-rendered. Enabled by {@link
+ * ShadowRootSearch#enableHostHints(int)}
+ *
+ * <p>Memory is bounded: least recently used selectors are evicted above the capacity and at most
+ * {@value #MAX_PAGES_PER_SELECTOR} pages are remembered per selector
+ */
+public class HostHints {
+
+  static final int MAX_PAGES_PER_SELECTOR = 8;
+
+  private final int capacity;
+  private final LinkedHashMap<String, LinkedHashMap<String, String>> paths;
+  private long hits;
+  private long misses;
+
+  HostHints(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity should be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.paths =
+        new LinkedHashMap<String, LinkedHashMap<String, String>>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(
+              Map.Entry<String, LinkedHashMap<String, String>> eldest) {
+            return size() > HostHints.this.capacity;
+          }
+        };
+  }
+
+  /**
+   * Number of lookups found in the hinted shadowRoot
+   *
+   * @return hits
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Number of lookups without a hint or not found in the hinted shadowRoot
+   *
+   * @return misses
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Number of remembered selectors
+   *
+   * @return size
+   */
+  public synchronized int size() {
+    return paths.size();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /** Forgets all hints and resets statistics. */
+  public synchronized void clear() {
+    paths.clear();
+    hits = 0;
+    misses = 0;
+  }
+
+  synchronized Map<String, String> getPaths(String selector) {
+    LinkedHashMap<String, String> selectorPaths = paths.get(selector);
+    return selectorPaths == null ? new HashMap<>() : new HashMap<>(selectorPaths);
+  }
+
+  synchronized void record(String selector, String page, String elementPath, boolean hit) {
+    if (hit) {
+      hits++;
+      return;
+    }
+    misses++;
+    if (elementPath == null) {
+      return;
+    }
+    LinkedHashMap<String, String> selectorPaths = paths.get(selector);
+    if (selectorPaths == null) {
+      selectorPaths =
+          new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+              return size() > MAX_PAGES_PER_SELECTOR;
+            }
+          };
+      paths.put(selector, selectorPaths);
+    }
+    selectorPaths.put(page, elementPath);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "HostHints{size=" + paths.size() + ", hits=" + hits + ", misses=" + misses + "}";
+  }
+}
@@ -0,0 +1,104 @@
+package io.github.densudas;
+
+import java.util.UUID;
+
+/**
+ * Statistics of the in-page result cache of {@link
+ * ShadowRootSearch#findElements(org.openqa.selenium.By)}. Results are cached in the page by
+ * locator and search root and are valid until DOM generation changes: MutationObservers on the
+ * document and every shadowRoot bump generation on any child list, attribute or text change.
+ * Enabled by {@link ShadowRootSearch#enableQueryCache(int)}
+ *
+ * <p>State that is not reflected in the DOM (e.g. {@code :checked} or {@code :hover} of a css
+ * selector) does not invalidate the cache
+ *
+ * <p>Each {@link ShadowRootSearch} keeps its own results in the page, bounded by its own
+ * capacity, MutationObservers are shared by all of them
+ */
+public class QueryCache {
+
+  private final String id = UUID.randomUUID().toString();
+  private final int capacity;
+  private long hits;
+  private long misses;
+  private boolean lastHit;
+  private long generation;
+
+  QueryCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity should be positive: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  String getId() {
+    return id;
+  }
+
+  /**
+   * Max number of cached results in the page
+   *
+   * @return capacity
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Number of queries answered from the cache without a traversal
+   *
+   * @return hits
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Number of queries which needed a traversal
+   *
+   * @return misses
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Whether the last query was answered from the cache
+   *
+   * @return true if the last query was a hit
+   */
+  public synchronized boolean isLastHit() {
+    return lastHit;
+  }
+
+  /**
+   * DOM generation of the page at the last query
+   *
+   * @return generation
+   */
+  public synchronized long getGeneration() {
+    return generation;
+  }
+
+  /** Resets statistics. */
+  public synchronized void resetStatistics() {
+    hits = 0;
+    misses = 0;
+    lastHit = false;
+  }
+
+  synchronized void record(boolean hit, long generation) {
+    if (hit) {
+      hits++;
+    } else {
+      misses++;
+    }
+    this.lastHit = hit;
+    this.generation = generation;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "QueryCache{capacity=" + capacity + ", hits=" + hits + ", misses=" + misses + "}";
+  }
+}
@@ -0,0 +1,45 @@
+package io.github.densudas;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/** Lazy element proxy handler, re-resolves element once if it has become stale. */
+class ShadowElementHandler implements InvocationHandler {
+
+  private final ShadowElementLocator locator;
+
+  ShadowElementHandler(ShadowElementLocator locator) {
+    this.locator = locator;
+  }
+
+  ShadowElementLocator getLocator() {
+    return locator;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    if ("toString".equals(method.getName()) && method.getParameterCount() == 0) {
+      return "Proxy element for: " + locator;
+    }
+    WebElement element = locator.findElement();
+    if ("getWrappedElement".equals(method.getName())) {
+      return element;
+    }
+    try {
+      return method.invoke(element, args);
+    } catch (InvocationTargetException e) {
+      if (!(e.getCause() instanceof StaleElementReferenceException)) {
+        throw e.getCause();
+      }
+    }
+    try {
+      return method.invoke(locator.refresh(), args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package io.github.densudas;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Locates element of a {@link FindByShadow} field. Element is resolved on first use and memoized
+ * together with its shadowRoot path, stale element is re-resolved through that path before
+ * falling back to the full search
+ */
+public class ShadowElementLocator implements ElementLocator {
+
+  private final ShadowRootSearch shadowRootSearch;
+  private final By selector;
+  private WebElement element;
+  private String elementPath;
+
+  public ShadowElementLocator(ShadowRootSearch shadowRootSearch, By selector) {
+    this.shadowRootSearch = shadowRootSearch;
+    this.selector = selector;
+  }
+
+  public By getSelector() {
+    return selector;
+  }
+
+  ShadowRootSearch getShadowRootSearch() {
+    return shadowRootSearch;
+  }
+
+  public synchronized boolean isResolved() {
+    return element != null;
+  }
+
+  @Override
+  public synchronized WebElement findElement() {
+    if (element == null) {
+      try {
+        resolve(shadowRootSearch.findElementWithShadowPath(selector));
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new WebDriverException(e);
+      }
+    }
+    return element;
+  }
+
+  @Override
+  public List<WebElement> findElements() {
+    try {
+      return shadowRootSearch.findElements(selector);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new WebDriverException(e);
+    }
+  }
+
+  /**
+   * Re-resolves stale element. Memoized shadowRoot path is tried first, then the full search
+   *
+   * @return {@link WebElement} element
+   */
+  public synchronized WebElement refresh() {
+    WebElement staleElement = element;
+    element = null;
+    if (staleElement != null && elementPath != null) {
+      try {
+        element = shadowRootSearch.findElementInShadowPath(elementPath, selector);
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new WebDriverException(e);
+      }
+    }
+    return findElement();
+  }
+
+  synchronized void resolve(Map<String, Object> elementWithPath) {
+    element = (WebElement) elementWithPath.get("element");
+    elementPath = (String) elementWithPath.get("elementPath");
+  }
+
+  @Override
+  public String toString() {
+    return "ShadowElementLocator '" + selector + "'";
+  }
+}
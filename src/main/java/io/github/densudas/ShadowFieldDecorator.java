@@ -0,0 +1,100 @@
+package io.github.densudas;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementListHandler;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Injects lazy proxies into {@link FindByShadow} fields. Other fields are decorated by Selenium's
+ * {@link DefaultFieldDecorator}, so {@code @FindBy} keeps working in the same page object
+ */
+public class ShadowFieldDecorator implements FieldDecorator {
+
+  private final ShadowRootSearch shadowRootSearch;
+  private final FieldDecorator defaultFieldDecorator;
+
+  public ShadowFieldDecorator(ShadowRootSearch shadowRootSearch) {
+    this.shadowRootSearch = shadowRootSearch;
+    this.defaultFieldDecorator =
+        new DefaultFieldDecorator(new DefaultElementLocatorFactory(shadowRootSearch.getDriver()));
+  }
+
+  @Override
+  public Object decorate(ClassLoader loader, Field field) {
+    FindByShadow findByShadow = field.getAnnotation(FindByShadow.class);
+    if (findByShadow == null) {
+      return defaultFieldDecorator.decorate(loader, field);
+    }
+
+    ShadowElementLocator locator =
+        new ShadowElementLocator(shadowRootSearch, buildSelector(findByShadow, field));
+    if (WebElement.class.equals(field.getType())) {
+      return Proxy.newProxyInstance(
+          loader,
+          new Class[] {WebElement.class, WrapsElement.class, Locatable.class},
+          new ShadowElementHandler(locator));
+    } else if (isWebElementList(field)) {
+      return Proxy.newProxyInstance(
+          loader, new Class[] {List.class}, new LocatingElementListHandler(locator));
+    }
+    throw new IllegalArgumentException(
+        "@FindByShadow field should be WebElement or List<WebElement>: " + field);
+  }
+
+  private static boolean isWebElementList(Field field) {
+    if (!List.class.equals(field.getType())) {
+      return false;
+    }
+    Type genericType = field.getGenericType();
+    return genericType instanceof ParameterizedType
+        && WebElement.class.equals(((ParameterizedType) genericType).getActualTypeArguments()[0]);
+  }
+
+  static By buildSelector(FindByShadow findByShadow, Field field) {
+    List<By> selectors = new ArrayList<>();
+    if (!findByShadow.css().isEmpty()) {
+      selectors.add(By.cssSelector(findByShadow.css()));
+    }
+    if (!findByShadow.xpath().isEmpty()) {
+      selectors.add(By.xpath(findByShadow.xpath()));
+    }
+    if (!findByShadow.id().isEmpty()) {
+      selectors.add(By.id(findByShadow.id()));
+    }
+    if (!findByShadow.className().isEmpty()) {
+      selectors.add(By.className(findByShadow.className()));
+    }
+    if (!findByShadow.name().isEmpty()) {
+      selectors.add(By.name(findByShadow.name()));
+    }
+    if (!findByShadow.tagName().isEmpty()) {
+      selectors.add(By.tagName(findByShadow.tagName()));
+    }
+    if (!findByShadow.linkText().isEmpty()) {
+      selectors.add(By.linkText(findByShadow.linkText()));
+    }
+    if (!findByShadow.partialLinkText().isEmpty()) {
+      selectors.add(By.partialLinkText(findByShadow.partialLinkText()));
+    }
+    if (selectors.size() != 1) {
+      throw new IllegalArgumentException(
+          "@FindByShadow should have exactly one locator, found "
+              + selectors.size()
+              + ": "
+              + field);
+    }
+    return selectors.get(0);
+  }
+}
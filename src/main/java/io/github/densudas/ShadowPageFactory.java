@@ -0,0 +1,105 @@
+package io.github.densudas;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PageFactory for page objects with {@link FindByShadow} fields
+ *
+ * <pre>{@code
+ * LoginPage page = new LoginPage();
+ * ShadowPageFactory.initElements(new ShadowRootSearch(driver), page);
+ * ShadowPageFactory.resolveAll(page);
+ * }</pre>
+ */
+public class ShadowPageFactory {
+
+  private ShadowPageFactory() {}
+
+  /**
+   * Injects lazy proxies into {@link FindByShadow} fields of page object. Elements are resolved on
+   * first use, other fields are initialized as by Selenium's {@link PageFactory}
+   *
+   * @param shadowRootSearch {@link ShadowRootSearch} used to locate elements
+   * @param page page object
+   */
+  public static void initElements(ShadowRootSearch shadowRootSearch, Object page) {
+    PageFactory.initElements(new ShadowFieldDecorator(shadowRootSearch), page);
+  }
+
+  /**
+   * Resolves all not yet resolved {@link FindByShadow} element fields of page object in a single
+   * script execution. Fields which elements are not found stay unresolved
+   *
+   * @param page page object initialized by {@link #initElements(ShadowRootSearch, Object)}
+   * @return number of resolved fields
+   */
+  public static int resolveAll(Object page) {
+    List<ShadowElementLocator> locators = getUnresolvedLocators(page);
+    if (locators.isEmpty()) {
+      return 0;
+    }
+
+    List<By> selectors = new ArrayList<>();
+    for (ShadowElementLocator locator : locators) {
+      selectors.add(locator.getSelector());
+    }
+    List<Map<String, Object>> elementsWithPath;
+    try {
+      ShadowRootSearch shadowRootSearch = locators.get(0).getShadowRootSearch();
+      elementsWithPath = shadowRootSearch.findEachElementWithShadowPath(selectors);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new WebDriverException(e);
+    }
+
+    int resolved = 0;
+    for (int i = 0; i < locators.size(); i++) {
+      if (elementsWithPath.get(i) != null) {
+        locators.get(i).resolve(elementsWithPath.get(i));
+        resolved++;
+      }
+    }
+    return resolved;
+  }
+
+  private static List<ShadowElementLocator> getUnresolvedLocators(Object page) {
+    List<ShadowElementLocator> locators = new ArrayList<>();
+    for (Class<?> pageClass = page.getClass();
+        pageClass != Object.class;
+        pageClass = pageClass.getSuperclass()) {
+      for (Field field : pageClass.getDeclaredFields()) {
+        if (field.getAnnotation(FindByShadow.class) == null) {
+          continue;
+        }
+        Object value;
+        try {
+          field.setAccessible(true);
+          value = field.get(page);
+        } catch (IllegalAccessException e) {
+          throw new WebDriverException(e);
+        }
+        if (value == null || !Proxy.isProxyClass(value.getClass())) {
+          continue;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(value);
+        if (handler instanceof ShadowElementHandler) {
+          ShadowElementLocator locator = ((ShadowElementHandler) handler).getLocator();
+          if (!locator.isResolved()) {
+            locators.add(locator);
+          }
+        }
+      }
+    }
+    return locators;
+  }
+}
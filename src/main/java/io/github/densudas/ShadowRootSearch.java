@@ -14,6 +14,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,10 +25,16 @@ import java.util.stream.Collectors;
 public class ShadowRootSearch {
 
   private final WebDriver DRIVER;
+  private HostHints hostHints;
+  private QueryCache queryCache;
+  private boolean nativeActions;
   private static final String CSS_SELECTOR = "cssSelector";
   private static final String XPATH = "xpath";
-  private static final String SELECTOR_REGEX = "^By\\.(\\w+): (.*)$";
+  private static final String SELECTOR_REGEX = "(?s)^By\\.(\\w+): (.*)$";
   private static final String JS_FILE = "shadowRootSearch.js";
+  private static final String REMOVE_QUERY_CACHE_SCRIPT =
+      "const state = window.__shadowRootSearch;"
+          + "if (state && state.queryCache) { state.queryCache.remove(arguments[0]); }";
 
   public ShadowRootSearch(WebDriver driver) {
     DRIVER = driver;
@@ -37,12 +44,89 @@ public class ShadowRootSearch {
     return DRIVER;
   }
 
+  /**
+   * Enables host hints: single element lookups from the document remember shadowRoot path where
+   * each selector was found on each page and search that shadowRoot first next time, falling back
+   * to the full walk. If several elements match selector, element from the hinted shadowRoot is
+   * returned even if it is not the first one in document order
+   *
+   * @param capacity max number of remembered selectors
+   */
+  public void enableHostHints(int capacity) {
+    hostHints = new HostHints(capacity);
+  }
+
+  public void disableHostHints() {
+    hostHints = null;
+  }
+
+  /**
+   * Host hints with hit/miss statistics
+   *
+   * @return {@link HostHints} hints or null if they are not enabled
+   */
+  public HostHints getHostHints() {
+    return hostHints;
+  }
+
+  /**
+   * Makes {@link #clickDeep(By, String...)} and {@link #setValueDeep(By, String)} use native
+   * WebDriver actions on found element instead of DOM-level ones, when real user events are needed.
+   * Element is still found and scrolled into view in a single script
+   *
+   * @param nativeActions use native WebDriver actions
+   */
+  public void setNativeActions(boolean nativeActions) {
+    this.nativeActions = nativeActions;
+  }
+
+  public boolean isNativeActions() {
+    return nativeActions;
+  }
+
+  /**
+   * Enables in-page result cache of {@link #findElements(WebElement, By)}: repeated queries on an
+   * unchanged page are answered without any traversal. See {@link QueryCache} for invalidation
+   *
+   * @param capacity max number of cached results of this instance in the page
+   */
+  public void enableQueryCache(int capacity) {
+    if (queryCache != null) {
+      disableQueryCache();
+    }
+    queryCache = new QueryCache(capacity);
+  }
+
+  /**
+   * Disables query cache of this instance and drops its results in the current page.
+   * MutationObservers are disconnected when no other {@link ShadowRootSearch} uses the cache in
+   * the page
+   */
+  public void disableQueryCache() {
+    if (queryCache != null) {
+      executeScript(REMOVE_QUERY_CACHE_SCRIPT, queryCache.getId());
+      queryCache = null;
+    }
+  }
+
+  /**
+   * Query cache with hit/miss statistics
+   *
+   * @return {@link QueryCache} cache or null if it is not enabled
+   */
+  public QueryCache getQueryCache() {
+    return queryCache;
+  }
+
   public WebElement findElement(By selector) throws Exception {
+    if (hostHints != null && !(selector instanceof ByText)) {
+      return (WebElement) findElementByHostHints(selector).get("element");
+    }
     return findElement(getDocument(), selector);
   }
 
   /**
-   * Finds element by cssSelector. It also searches in every shadowRoot
+   * Finds element by cssSelector, xpath or {@link ByText}. It also searches in every shadowRoot
    *
    * @param rootNode {@link WebElement} search from node
    * @param selector {@link By} selector
@@ -50,6 +134,9 @@ public class ShadowRootSearch {
    * @throws Exception exception
    */
   public WebElement findElement(WebElement rootNode, By selector) throws Exception {
+    if (selector instanceof ByText) {
+      return findElementByText(rootNode, (ByText) selector);
+    }
     WebElement element;
     ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
     String locatorType = selectorMatch.get(1);
@@ -78,7 +165,34 @@ public class ShadowRootSearch {
     return element;
   }
 
+  private WebElement findElementByText(WebElement rootNode, ByText selector) throws Exception {
+    WebElement element;
+    String locatorType = selector.getLocatorType();
+    String locator = selector.getLocator();
+    String script =
+        "return findElementByText(arguments[0], arguments[1], arguments[2], arguments[3]);";
+
+    element =
+        (WebElement)
+            executeJsFunction(
+                rootNode,
+                script,
+                selector.getMode(),
+                selector.getText(),
+                selector.getRestriction());
+    if (element == null) {
+      throw new NoSuchElementException(
+          "Unable to locate element by " + locatorType + ": " + locator);
+    }
+    fixLocator(locator, locatorType, element);
+
+    return element;
+  }
+
   public Map<String, Object> findElementWithShadowPath(By selector) throws Exception {
+    if (hostHints != null && !(selector instanceof ByText)) {
+      return findElementByHostHints(selector);
+    }
     return findElementWithShadowPath(getDocument(), selector);
   }
 
@@ -102,6 +216,7 @@ public class ShadowRootSearch {
   @SuppressWarnings("unchecked")
   public Map<String, Object> findElementWithShadowPath(WebElement rootNode, By selector)
       throws Exception {
+    checkNotByText(selector, "findElementWithShadowPath");
     Map<String, Object> foundElementWithPath;
     WebElement element;
     ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
@@ -141,12 +256,130 @@ public class ShadowRootSearch {
     };
   }
 
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> findElementByHostHints(By selector) throws Exception {
+    Map<String, Object> foundElementWithPath;
+    WebElement element;
+    ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
+    String locatorType = selectorMatch.get(1);
+    String locator = selectorMatch.get(2);
+    String hostHintsKey = locatorType + ": " + locator;
+    boolean isXpath = XPATH.equals(locatorType);
+    String jsLocator = toJsLocator(locatorType, locator);
+    String script =
+        "return findElementByHostHints(arguments[0], arguments[1], arguments[2], arguments[3]);";
+
+    foundElementWithPath =
+        (Map<String, Object>)
+            executeJsFunction(
+                getDocument(), script, jsLocator, isXpath, hostHints.getPaths(hostHintsKey));
+    hostHints.record(
+        hostHintsKey,
+        (String) foundElementWithPath.get("page"),
+        (String) foundElementWithPath.get("elementPath"),
+        Boolean.TRUE.equals(foundElementWithPath.get("hit")));
+    element = (WebElement) foundElementWithPath.get("element");
+    if (element == null) {
+      throw new NoSuchElementException(
+          "Unable to locate element by " + locatorType + ": " + locator);
+    }
+    fixLocator(locator, locatorType, element);
+
+    return new HashMap<String, Object>() {
+      {
+        put("element", element);
+        put("elementPath", foundElementWithPath.get("elementPath"));
+      }
+    };
+  }
+
+  /**
+   * Finds element directly in shadowRoot by its path, without searching through other shadowRoots
+   *
+   * @param elementPath path to shadowRoot returned by {@link #findElementWithShadowPath(By)}
+   * @param selector {@link By} selector
+   * @return {@link WebElement} element or null if it is not found
+   * @throws Exception exception
+   */
+  WebElement findElementInShadowPath(String elementPath, By selector) throws Exception {
+    WebElement element;
+    ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
+    String locatorType = selectorMatch.get(1);
+    String locator = selectorMatch.get(2);
+    String script =
+        "return findElementInShadowPath(arguments[0], arguments[1], arguments[2], arguments[3]);";
+
+    element =
+        (WebElement)
+            executeJsFunction(
+                getDocument(),
+                script,
+                elementPath,
+                toJsLocator(locatorType, locator),
+                XPATH.equals(locatorType));
+    if (element != null) {
+      fixLocator(locator, locatorType, element);
+    }
+
+    return element;
+  }
+
+  /**
+   * Finds element with shadowPath for each selector in a single script execution. See {@link
+   * #findElementWithShadowPath(WebElement, By)} for the format of each found element
+   *
+   * @param selectors list of {@link By} selectors
+   * @return list of found elements with path in order of selectors, null for not found elements
+   * @throws Exception exception
+   */
+  @SuppressWarnings("unchecked")
+  public List<Map<String, Object>> findEachElementWithShadowPath(List<By> selectors)
+      throws Exception {
+    List<Map<String, Object>> jsLocators = new ArrayList<>();
+    List<String> locatorTypes = new ArrayList<>();
+    List<String> locators = new ArrayList<>();
+    for (By selector : selectors) {
+      checkNotByText(selector, "findEachElementWithShadowPath");
+      ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
+      String locatorType = selectorMatch.get(1);
+      String locator = selectorMatch.get(2);
+      Map<String, Object> jsLocator = new HashMap<>();
+      jsLocator.put("locator", toJsLocator(locatorType, locator));
+      jsLocator.put("isXpath", XPATH.equals(locatorType));
+      jsLocators.add(jsLocator);
+      locatorTypes.add(locatorType);
+      locators.add(locator);
+    }
+    String script = "return findEachElementWithShadowPath(arguments[0], arguments[1]);";
+
+    List<Map<String, Object>> elementsWithPath =
+        (List<Map<String, Object>>) executeJsFunction(getDocument(), script, jsLocators);
+    List<Map<String, Object>> fixedElements = new ArrayList<>();
+    for (int i = 0; i < elementsWithPath.size(); i++) {
+      Map<String, Object> elementWithPath = elementsWithPath.get(i);
+      if (elementWithPath == null || elementWithPath.get("element") == null) {
+        fixedElements.add(null);
+        continue;
+      }
+      WebElement element = (WebElement) elementWithPath.get("element");
+      fixLocator(locators.get(i), locatorTypes.get(i), element);
+      fixedElements.add(
+          new HashMap<String, Object>() {
+            {
+              put("element", element);
+              put("elementPath", elementWithPath.get("elementPath"));
+            }
+          });
+    }
+    return fixedElements;
+  }
+
   public ArrayList<WebElement> findElements(By selector) throws Exception {
     return findElements(getDocument(), selector);
   }
 
   /**
-   * Finds elements by cssSelector. It also searches in every shadowRoot
+   * Finds elements by cssSelector, xpath or {@link ByText}. It also searches in every shadowRoot
    *
    * @param rootNode {@link WebElement} search from node
    * @param selector {@link By} selector
@@ -155,6 +388,9 @@ public class ShadowRootSearch {
    */
   @SuppressWarnings("unchecked")
   public ArrayList<WebElement> findElements(WebElement rootNode, By selector) throws Exception {
+    if (selector instanceof ByText) {
+      return findElementsByText(rootNode, (ByText) selector);
+    }
     ArrayList<WebElement> elements;
     ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
     String locatorType = selectorMatch.get(1);
@@ -173,7 +409,33 @@ public class ShadowRootSearch {
               escapeQuotes(locatorToCss(locatorType, locator)));
     }
 
-    elements = (ArrayList<WebElement>) executeJsFunction(rootNode, script);
+    elements = (ArrayList<WebElement>) executeSearchFunction(rootNode, selector, script);
+    if (elements == null) {
+      return new ArrayList<>();
+    }
+    elements.forEach(webElement -> fixLocator(locator, locatorType, webElement));
+
+    return elements;
+  }
+
+  @SuppressWarnings("unchecked")
+  private ArrayList<WebElement> findElementsByText(WebElement rootNode, ByText selector)
+      throws Exception {
+    ArrayList<WebElement> elements;
+    String locatorType = selector.getLocatorType();
+    String locator = selector.getLocator();
+    String script =
+        "return findElementsByText(arguments[0], arguments[1], arguments[2], arguments[3]);";
+
+    elements =
+        (ArrayList<WebElement>)
+            executeSearchFunction(
+                rootNode,
+                selector,
+                script,
+                selector.getMode(),
+                selector.getText(),
+                selector.getRestriction());
     if (elements == null) {
       return new ArrayList<>();
     }
@@ -206,7 +468,8 @@ public class ShadowRootSearch {
   @SuppressWarnings("unchecked")
   public List<Map<String, Object>> findElementsWithShadowPath(WebElement rootNode, By selector)
       throws Exception {
-    ArrayList<Map<String, Object>> elementsWithShadowPath;
+    checkNotByText(selector, "findElementsWithShadowPath");
+    Map<String, Object> elementsWithShadowPath;
     ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
     String locatorType = selectorMatch.get(1);
     String locator = selectorMatch.get(2);
@@ -215,45 +478,334 @@ public class ShadowRootSearch {
     if (CSS_SELECTOR.equals(locatorType)) {
       script =
           String.format(
-              "return findElementsWithShadowPath(arguments[0], \"%s\");", escapeQuotes(locator));
+              "return compactElementsWithPath(findElementsWithShadowPath(arguments[0], \"%s\"));",
+              escapeQuotes(locator));
     } else if (XPATH.equals(locatorType)) {
       script =
           String.format(
-              "return findElementsWithShadowPathByXpath(arguments[0], \"%s\");",
+              "return compactElementsWithPath("
+                  + "findElementsWithShadowPathByXpath(arguments[0], \"%s\"));",
               escapeQuotes(locator));
     } else {
       script =
           String.format(
-              "return findElementsWithShadowPath(arguments[0], \"%s\");",
+              "return compactElementsWithPath(findElementsWithShadowPath(arguments[0], \"%s\"));",
               escapeQuotes(locatorToCss(locatorType, locator)));
     }
 
-    elementsWithShadowPath = (ArrayList<Map<String, Object>>) executeJsFunction(rootNode, script);
+    elementsWithShadowPath = (Map<String, Object>) executeJsFunction(rootNode, script);
     if (elementsWithShadowPath == null) {
       return new ArrayList<>();
     }
 
-    return getElementsWithFixedLocators(locator, locatorType, elementsWithShadowPath);
+    return new CompactElementsWithPath(
+        (List<String>) elementsWithShadowPath.get("paths"),
+        (List<Number>) elementsWithShadowPath.get("pathIndexes"),
+        (List<WebElement>) elementsWithShadowPath.get("elements"),
+        element -> fixLocator(locator, locatorType, element));
   }
 
-  private List<Map<String, Object>> getElementsWithFixedLocators(
-      String locator, String locatorType, List<Map<String, Object>> elements) {
+  /**
+   * Finds element in every shadowRoot, scrolls it into view, clicks it and reads fields of the
+   * element after the click in a single script execution. Field is an element property name (e.g.
+   * "textContent", "value", "checked") or an attribute name prefixed with "@" (e.g. "@aria-label")
+   *
+   * @param selector {@link By} selector
+   * @param fields element fields to read after the click
+   * @return {@link Map} [field: value]
+   * @throws Exception exception
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, Object> clickDeep(By selector, String... fields) throws Exception {
+    Map<String, Object> result =
+        executeDeepAction("clickDeep", selector, Arrays.asList(fields), nativeActions);
+    if (!nativeActions) {
+      return (Map<String, Object>) result.get("fields");
+    }
+    WebElement element = (WebElement) result.get("element");
+    element.click();
+    if (fields.length == 0) {
+      return new HashMap<>();
+    }
+    String script = "return readElementFields(arguments[0], arguments[1]);";
+    return (Map<String, Object>) executeJsFunction(element, script, Arrays.asList(fields));
+  }
+
+  /**
+   * Finds element in every shadowRoot, scrolls it into view and sets its value in a single script
+   * execution. Value is set through the native value setter followed by "input" and "change"
+   * events, so frameworks tracking the value notice the change
+   *
+   * @param selector {@link By} selector
+   * @param value value
+   * @return {@link WebElement} element
+   * @throws Exception exception
+   */
+  public WebElement setValueDeep(By selector, String value) throws Exception {
+    Map<String, Object> result = executeDeepAction("setValueDeep", selector, value, nativeActions);
+    WebElement element = (WebElement) result.get("element");
+    if (nativeActions) {
+      element.clear();
+      element.sendKeys(value);
+    }
+    return element;
+  }
+
+  /**
+   * Finds element in every shadowRoot and reads its fields in a single script execution. See
+   * {@link #clickDeep(By, String...)} for the format of fields
+   *
+   * @param selector {@link By} selector
+   * @param fields element fields to read
+   * @return {@link Map} [field: value]
+   * @throws Exception exception
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, Object> readDeep(By selector, String... fields) throws Exception {
+    return (Map<String, Object>)
+        executeDeepAction("readDeep", selector, Arrays.asList(fields)).get("fields");
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> executeDeepAction(String function, By selector, Object... args)
+      throws Exception {
+    checkNotByText(selector, function);
+    Map<String, Object> result;
+    ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
+    String locatorType = selectorMatch.get(1);
+    String locator = selectorMatch.get(2);
+    Object[] scriptArgs = new Object[args.length + 2];
+    scriptArgs[0] = toJsLocator(locatorType, locator);
+    scriptArgs[1] = XPATH.equals(locatorType);
+    System.arraycopy(args, 0, scriptArgs, 2, args.length);
+    StringBuilder script = new StringBuilder("return ").append(function).append("(document");
+    for (int i = 0; i < scriptArgs.length; i++) {
+      script.append(", arguments[").append(i).append("]");
+    }
+    script.append(");");
+
+    result = (Map<String, Object>) executeScript(injectScript(script.toString()), scriptArgs);
+    if (result == null) {
+      throw new NoSuchElementException(
+          "Unable to locate element by " + locatorType + ": " + locator);
+    }
+    fixLocator(locator, locatorType, (WebElement) result.get("element"));
+
+    return result;
+  }
+
+  /**
+   * Finds element in the top document, every shadowRoot and every accessible (same-origin) iframe,
+   * including iframes inside shadowRoots, in a single script execution. Driver is switched to the
+   * top document first, frame paths start from it. Element is returned with its frame path, which
+   * can be passed to {@link #switchToFrameOf(Map)} to interact with it
+   *
+   * <pre>output example:{@code
+   * [
+   * "framePath" -> [".querySelectorAll(\"iframe, frame\")[0]"],
+   * "elementPath" -> ".querySelector('div[id=\'one\']').shadowRoot",
+   * "elementIndex" -> 3,
+   * "locatorType" -> "cssSelector",
+   * "locator" -> "button",
+   * "element" -> null
+   * ]
+   * }</pre>
+   *
+   * "element" is set only for elements of the top document (empty "framePath"), elements of nested
+   * frames have to be resolved by {@link #switchToFrameOf(Map)}
+   *
+   * @param selector {@link By} selector
+   * @return {@link Map} ["framePath": List, "elementPath": String, "elementIndex": Long,
+   *     "locatorType": String, "locator": String, "element": WebElement]
+   * @throws Exception exception
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, Object> findElementInFrames(By selector) throws Exception {
+    checkNotByText(selector, "findElementInFrames");
+    Map<String, Object> foundElementWithFramePath;
+    ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
+    String locatorType = selectorMatch.get(1);
+    String locator = selectorMatch.get(2);
+    String script;
+
+    if (CSS_SELECTOR.equals(locatorType)) {
+      script =
+          String.format("return findElementInFrames(arguments[0], \"%s\");", escapeQuotes(locator));
+    } else if (XPATH.equals(locatorType)) {
+      script =
+          String.format(
+              "return findElementInFramesByXpath(arguments[0], \"%s\");", escapeQuotes(locator));
+    } else {
+      script =
+          String.format(
+              "return findElementInFrames(arguments[0], \"%s\");",
+              escapeQuotes(locatorToCss(locatorType, locator)));
+    }
+
+    DRIVER.switchTo().defaultContent();
+    foundElementWithFramePath = (Map<String, Object>) executeJsFunction(getDocument(), script);
+    if (foundElementWithFramePath == null) {
+      throw new NoSuchElementException(
+          "Unable to locate elementWithFramePath by " + locatorType + ": " + locator);
+    }
+
+    return getElementWithFramePath(locator, locatorType, foundElementWithFramePath);
+  }
+
+  /**
+   * Finds elements in the top document, every shadowRoot and every accessible (same-origin)
+   * iframe, including iframes inside shadowRoots, in a single script execution. Driver is switched
+   * to the top document first. See {@link #findElementInFrames(By)} for the format of each found
+   * element
+   *
+   * @param selector {@link By} selector
+   * @return list of elements with frame path
+   * @throws Exception exception
+   */
+  @SuppressWarnings("unchecked")
+  public List<Map<String, Object>> findElementsInFrames(By selector) throws Exception {
+    checkNotByText(selector, "findElementsInFrames");
+    ArrayList<Map<String, Object>> elementsWithFramePath;
+    ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
+    String locatorType = selectorMatch.get(1);
+    String locator = selectorMatch.get(2);
+    String script;
+
+    if (CSS_SELECTOR.equals(locatorType)) {
+      script =
+          String.format(
+              "return findElementsInFrames(arguments[0], \"%s\");", escapeQuotes(locator));
+    } else if (XPATH.equals(locatorType)) {
+      script =
+          String.format(
+              "return findElementsInFramesByXpath(arguments[0], \"%s\");", escapeQuotes(locator));
+    } else {
+      script =
+          String.format(
+              "return findElementsInFrames(arguments[0], \"%s\");",
+              escapeQuotes(locatorToCss(locatorType, locator)));
+    }
+
+    DRIVER.switchTo().defaultContent();
+    elementsWithFramePath =
+        (ArrayList<Map<String, Object>>) executeJsFunction(getDocument(), script);
+    if (elementsWithFramePath == null) {
+      return new ArrayList<>();
+    }
+
     List<Map<String, Object>> fixedElements = new ArrayList<>();
-    for (Map<String, Object> element : elements) {
-      WebElement webElement = (WebElement) element.get("element");
-      fixLocator(locator, locatorType, webElement);
-      fixedElements.add(
-          new HashMap<String, Object>() {
-            {
-              put("element", webElement);
-              put("elementPath", element.get("elementPath"));
-            }
-          });
+    for (Map<String, Object> element : elementsWithFramePath) {
+      fixedElements.add(getElementWithFramePath(locator, locatorType, element));
     }
     return fixedElements;
   }
 
-  private void fixLocator(String locator, String locatorType, WebElement element) {
+  /**
+   * Switches driver to the frame of element found by {@link #findElementInFrames(By)} or {@link
+   * #findElementsInFrames(By)} and resolves the element inside it. Frame path is followed from the
+   * top document. Driver stays switched to that frame, use {@code
+   * driver.switchTo().defaultContent()} to return to the top document
+   *
+   * @param elementWithFramePath found element with frame path
+   * @return {@link WebElement} element
+   * @throws NoSuchElementException if element at the found position does not match the locator
+   *     anymore
+   * @throws Exception exception
+   */
+  @SuppressWarnings("unchecked")
+  public WebElement switchToFrameOf(Map<String, Object> elementWithFramePath) throws Exception {
+    List<String> framePath = (List<String>) elementWithFramePath.get("framePath");
+    String elementPath = (String) elementWithFramePath.get("elementPath");
+    Number elementIndex = (Number) elementWithFramePath.get("elementIndex");
+    String locatorType = (String) elementWithFramePath.get("locatorType");
+    String locator = (String) elementWithFramePath.get("locator");
+
+    DRIVER.switchTo().defaultContent();
+    for (String frameLocator : framePath) {
+      WebElement frame = (WebElement) executeScript("return document" + frameLocator + ";");
+      if (frame == null) {
+        throw new NoSuchElementException("Unable to locate frame by path: " + frameLocator);
+      }
+      DRIVER.switchTo().frame(frame);
+    }
+
+    String script =
+        String.format(
+            "return getElementByIndex(arguments[0]%s, arguments[1], arguments[2], arguments[3]);",
+            elementPath);
+    WebElement element =
+        (WebElement)
+            executeJsFunction(
+                getDocument(),
+                script,
+                elementIndex,
+                toJsLocator(locatorType, locator),
+                XPATH.equals(locatorType));
+    if (element == null) {
+      throw new NoSuchElementException(
+          "Unable to locate element by "
+              + locatorType
+              + ": "
+              + locator
+              + " in path: "
+              + framePath
+              + " "
+              + elementPath);
+    }
+    fixLocator(locator, locatorType, element);
+    return element;
+  }
+
+  /**
+   * Starts watching elements matching selector in the document and in every current and future
+   * shadowRoot. Elements matching selector at the moment of the call are not reported, only
+   * elements that are added or removed afterwards
+   *
+   * @param selector {@link By} selector, xpath is not supported
+   * @return {@link ShadowRootWatch} watch, which should be closed when it is not needed anymore
+   * @throws Exception exception
+   */
+  public ShadowRootWatch watch(By selector) throws Exception {
+    checkNotByText(selector, "Watch");
+    ArrayList<String> selectorMatch = matchSelectorRegex(selector.toString());
+    String locatorType = selectorMatch.get(1);
+    String locator = selectorMatch.get(2);
+    String script;
+
+    if (CSS_SELECTOR.equals(locatorType)) {
+      script = String.format("return watchElements(arguments[0], \"%s\");", escapeQuotes(locator));
+    } else if (XPATH.equals(locatorType)) {
+      throw new Exception("Watch is not supported for locator type: " + locatorType);
+    } else {
+      script =
+          String.format(
+              "return watchElements(arguments[0], \"%s\");",
+              escapeQuotes(locatorToCss(locatorType, locator)));
+    }
+
+    Number watchId = (Number) executeJsFunction(getDocument(), script);
+    return new ShadowRootWatch(this, watchId.longValue(), locatorType, locator);
+  }
+
+  private Map<String, Object> getElementWithFramePath(
+      String locator, String locatorType, Map<String, Object> elementWithFramePath) {
+    WebElement webElement = (WebElement) elementWithFramePath.get("element");
+    if (webElement != null) {
+      fixLocator(locator, locatorType, webElement);
+    }
+    return new HashMap<String, Object>() {
+      {
+        put("framePath", elementWithFramePath.get("framePath"));
+        put("elementPath", elementWithFramePath.get("elementPath"));
+        put("elementIndex", elementWithFramePath.get("elementIndex"));
+        put("locatorType", locatorType);
+        put("locator", locator);
+        put("element", webElement);
+      }
+    };
+  }
+
+  void fixLocator(String locator, String locatorType, WebElement element) {
     if (element instanceof RemoteWebElement) {
       try {
         Class<?>[] parameterTypes = new Class[] {SearchContext.class, String.class, String.class};
@@ -297,13 +849,59 @@ public class ShadowRootSearch {
     return cssLocator;
   }
 
+  private String toJsLocator(String locatorType, String locator) throws Exception {
+    if (CSS_SELECTOR.equals(locatorType) || XPATH.equals(locatorType)) {
+      return locator;
+    }
+    return locatorToCss(locatorType, locator);
+  }
+
   private WebElement getDocument() {
     return (WebElement) executeScript("return document;");
   }
 
-  private Object executeJsFunction(WebElement rootNode, String script) throws Exception {
+  @SuppressWarnings("unchecked")
+  private Object executeSearchFunction(
+      WebElement rootNode, By selector, String script, Object... args) throws Exception {
+    if (queryCache == null) {
+      return executeJsFunction(rootNode, script, args);
+    }
+
+    int cacheIdIndex = args.length + 1;
+    String cachedScript =
+        String.format(
+            "return findElementsCached(arguments[0], arguments[%d], arguments[%d], arguments[%d],"
+                + " () => { %s });",
+            cacheIdIndex, cacheIdIndex + 1, cacheIdIndex + 2, script);
+    Object[] cachedArgs = Arrays.copyOf(args, args.length + 3);
+    cachedArgs[args.length] = queryCache.getId();
+    cachedArgs[args.length + 1] = getCacheKey(selector);
+    cachedArgs[args.length + 2] = queryCache.getCapacity();
+
+    Map<String, Object> result =
+        (Map<String, Object>) executeJsFunction(rootNode, cachedScript, cachedArgs);
+    queryCache.record(
+        Boolean.TRUE.equals(result.get("hit")), ((Number) result.get("generation")).longValue());
+    return result.get("elements");
+  }
+
+  private static List<String> getCacheKey(By selector) {
+    if (selector instanceof ByText) {
+      ByText byText = (ByText) selector;
+      return byText.getRestriction() == null
+          ? Arrays.asList(byText.getLocatorType(), byText.getText())
+          : Arrays.asList(byText.getLocatorType(), byText.getText(), byText.getRestriction());
+    }
+    return Arrays.asList(selector.toString());
+  }
+
+  private Object executeJsFunction(WebElement rootNode, String script, Object... args)
+      throws Exception {
+    Object[] scriptArgs = new Object[args.length + 1];
+    scriptArgs[0] = rootNode;
+    System.arraycopy(args, 0, scriptArgs, 1, args.length);
     script = injectScript(script);
-    return executeScript(script, rootNode);
+    return executeScript(script, scriptArgs);
   }
 
   private Object executeScript(String script, Object... args) {
@@ -325,6 +923,15 @@ public class ShadowRootSearch {
     }
   }
 
+  private static void checkNotByText(By selector, String operation) throws Exception {
+    if (selector instanceof ByText) {
+      throw new Exception(
+          operation
+              + " is not supported for locator type: "
+              + ((ByText) selector).getLocatorType());
+    }
+  }
+
   private static ArrayList<String> matchSelectorRegex(String selector) {
     ArrayList<String> groups = new ArrayList<>();
     Matcher matcher = Pattern.compile(SELECTOR_REGEX).matcher(selector);
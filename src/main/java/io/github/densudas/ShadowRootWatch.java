@@ -0,0 +1,170 @@
+package io.github.densudas;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Watch over elements matching a selector in the document and every current and future shadowRoot,
+ * created by {@link ShadowRootSearch#watch(org.openqa.selenium.By)}. MutationObservers installed in
+ * the page buffer added and removed matches, the buffer is drained in batches by {@link #poll()}
+ * or {@link #await(long)} without a rescan of the page. Up to 10000 undrained events are kept in
+ * the page, the oldest ones are dropped when the buffer is full
+ *
+ * <pre>{@code
+ * try (ShadowRootWatch watch = shadowRootSearch.watch(By.cssSelector(".toast"))) {
+ *   Iterator<ShadowRootWatch.Event> events = watch.events(5000);
+ *   while (events.hasNext()) {
+ *     ShadowRootWatch.Event event = events.next();
+ *   }
+ * }
+ * }</pre>
+ */
+public class ShadowRootWatch implements AutoCloseable {
+
+  private static final String GET_WATCH =
+      "const state = window.__shadowRootSearch;"
+          + "const watch = state ? state.watches[arguments[0]] : null;";
+  private static final String DRAIN_SCRIPT = GET_WATCH + "return watch ? watch.drain() : null;";
+  private static final String AWAIT_SCRIPT =
+      GET_WATCH
+          + "const callback = arguments[arguments.length - 1];"
+          + "if (!watch) { callback(null); } else { watch.await(arguments[1], callback); }";
+  private static final String DISCONNECT_SCRIPT = GET_WATCH + "if (watch) { watch.disconnect(); }";
+
+  private final ShadowRootSearch shadowRootSearch;
+  private final long watchId;
+  private final String locatorType;
+  private final String locator;
+
+  ShadowRootWatch(
+      ShadowRootSearch shadowRootSearch, long watchId, String locatorType, String locator) {
+    this.shadowRootSearch = shadowRootSearch;
+    this.watchId = watchId;
+    this.locatorType = locatorType;
+    this.locator = locator;
+  }
+
+  /**
+   * Drains events buffered in the page since the previous call, does not wait for new events
+   *
+   * @return list of events, empty if nothing has changed
+   */
+  public List<Event> poll() {
+    return toEvents(executor().executeScript(DRAIN_SCRIPT, watchId));
+  }
+
+  /**
+   * Waits in the page until at least one event is buffered or timeout is reached and drains
+   * buffered events. Events are only drained by {@link #poll()}, so a wait abandoned on driver
+   * script timeout loses nothing: its page-side timer is cleared by the following drain
+   *
+   * @param timeoutMillis timeout in milliseconds
+   * @return list of events, empty if nothing has changed before timeout
+   */
+  public List<Event> await(long timeoutMillis) {
+    try {
+      executor().executeAsyncScript(AWAIT_SCRIPT, watchId, timeoutMillis);
+    } catch (ScriptTimeoutException ignored) {
+      // driver script timeout is shorter than timeoutMillis, events stay buffered in the page
+    }
+    return poll();
+  }
+
+  /**
+   * Iterates over events as they come. Each {@link Iterator#hasNext()} waits up to timeout for the
+   * next batch of events and returns false if nothing has changed in that time
+   *
+   * @param timeoutMillis timeout in milliseconds to wait for each batch
+   * @return iterator of events
+   */
+  public Iterator<Event> events(long timeoutMillis) {
+    return new Iterator<Event>() {
+      private final LinkedList<Event> batch = new LinkedList<>();
+
+      @Override
+      public boolean hasNext() {
+        if (batch.isEmpty()) {
+          batch.addAll(await(timeoutMillis));
+        }
+        return !batch.isEmpty();
+      }
+
+      @Override
+      public Event next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException("No events in " + timeoutMillis + " ms");
+        }
+        return batch.removeFirst();
+      }
+    };
+  }
+
+  /** Disconnects MutationObservers of this watch in the page. */
+  @Override
+  public void close() {
+    executor().executeScript(DISCONNECT_SCRIPT, watchId);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Event> toEvents(Object result) {
+    if (result == null) {
+      throw new IllegalStateException(
+          "Watch by " + locatorType + ": " + locator + " is not installed in the current page");
+    }
+    List<Event> events = new ArrayList<>();
+    for (Map<String, Object> event : (List<Map<String, Object>>) result) {
+      WebElement element = (WebElement) event.get("element");
+      shadowRootSearch.fixLocator(locator, locatorType, element);
+      Event.Type type = Event.Type.valueOf(((String) event.get("type")).toUpperCase());
+      events.add(new Event(type, element));
+    }
+    return events;
+  }
+
+  private JavascriptExecutor executor() {
+    return (JavascriptExecutor) shadowRootSearch.getDriver();
+  }
+
+  /** Element matching the watched selector that has appeared in or disappeared from the page. */
+  public static class Event {
+
+    public enum Type {
+      ADDED,
+      REMOVED
+    }
+
+    private final Type type;
+    private final WebElement element;
+
+    Event(Type type, WebElement element) {
+      this.type = type;
+      this.element = element;
+    }
+
+    public Type getType() {
+      return type;
+    }
+
+    /**
+     * Found element. Element of {@link Type#REMOVED} event is usually stale
+     *
+     * @return {@link WebElement} element
+     */
+    public WebElement getElement() {
+      return element;
+    }
+
+    @Override
+    public String toString() {
+      return type + ": " + element;
+    }
+  }
+}
@@ -1,3 +1,7 @@
+const FRAME_SELECTOR = 'iframe, frame';
+const IGNORED_TEXT_TAGS = ['script', 'style', 'noscript', 'template'];
+const MAX_WATCH_EVENTS = 10000;
+
 function findElement(root, querySelector) {
   let element = root.querySelector(querySelector);
   if (element) {
@@ -17,8 +21,7 @@ function findElements(root, querySelector) {
   return NodeList
 }
 
-function findElementWithShadowPath(root, querySelector) {
-  const allDeepNodes = collectAllDeepNodes(root);
+function findElementWithShadowPath(root, querySelector, allDeepNodes = collectAllDeepNodes(root)) {
   let element = root.querySelector(querySelector);
   if (element) {
     return {elementPath: '', element: element}
@@ -30,8 +33,7 @@ function findElementWithShadowPath(root, querySelector) {
   return elementWithPath
 }
 
-function findElementsWithShadowPath(root, querySelector) {
-  const allDeepNodes = collectAllDeepNodes(root);
+function findElementsWithShadowPath(root, querySelector, allDeepNodes = collectAllDeepNodes(root)) {
   let elementsWithPath = [];
   root.querySelectorAll(querySelector).forEach(element => {
     elementsWithPath.push({
@@ -61,8 +63,7 @@ function findElementsByXpath(root, xpath) {
   return NodeList
 }
 
-function findElementWithShadowPathByXpath(root, xpath) {
-  const allDeepNodes = collectAllDeepNodes(root);
+function findElementWithShadowPathByXpath(root, xpath, allDeepNodes = collectAllDeepNodes(root)) {
   let element = getElementByXpath(root, xpath);
   if (element) {
     return {elementPath: '', element: element}
@@ -74,8 +75,7 @@ function findElementWithShadowPathByXpath(root, xpath) {
   return elementWithPath
 }
 
-function findElementsWithShadowPathByXpath(root, xpath) {
-  const allDeepNodes = collectAllDeepNodes(root);
+function findElementsWithShadowPathByXpath(root, xpath, allDeepNodes = collectAllDeepNodes(root)) {
   let elementsWithPath = [];
   getElementsByXpath(root, xpath).forEach(element => {
     elementsWithPath.push({elementPath: '', element: element})
@@ -84,8 +84,275 @@ function findElementsWithShadowPathByXpath(root, xpath) {
   return fixElementsWithPath(root, elementsWithPath)
 }
 
+function findElementByText(root, mode, text, restriction) {
+  const textMatcher = getTextMatcher(mode, text);
+  let elements = getElementsByText(root, textMatcher, restriction, true);
+  if (elements.length !== 0) {
+    return elements[0]
+  }
+  const allDeepNodes = collectAllDeepNodes(root);
+  return findElementByTextInDeepNodes(allDeepNodes, textMatcher, restriction)
+}
+
+function findElementsByText(root, mode, text, restriction) {
+  const textMatcher = getTextMatcher(mode, text);
+  const allDeepNodes = collectAllDeepNodes(root);
+  let NodeList;
+  NodeList = [
+    ...getElementsByText(root, textMatcher, restriction, false),
+    ...findElementsByTextInDeepNodes(allDeepNodes, textMatcher, restriction)
+  ];
+  return NodeList
+}
+
+function findElementByHostHints(root, locator, isXpath, hostHints) {
+  const page = location.origin + location.pathname;
+  const hintedPath = hostHints[page];
+  if (hintedPath !== undefined) {
+    let element = findElementInShadowPath(root, hintedPath, locator, isXpath);
+    if (element) {
+      return {page: page, hit: true, elementPath: hintedPath, element: element}
+    }
+  }
+  let elementWithPath = isXpath ?
+    findElementWithShadowPathByXpath(root, locator) : findElementWithShadowPath(root, locator);
+  if (elementWithPath && elementWithPath.element) {
+    return {page: page, hit: false, elementPath: elementWithPath.elementPath, element: elementWithPath.element}
+  }
+  return {page: page, hit: false, elementPath: null, element: null}
+}
+
+function findEachElementWithShadowPath(root, locators) {
+  const allDeepNodes = collectAllDeepNodes(root);
+  return locators.map(locator => {
+    let element = locator.isXpath ?
+      getElementByXpath(root, locator.locator) : root.querySelector(locator.locator);
+    if (element) {
+      return {elementPath: '', element: element}
+    }
+    let elementWithPath = locator.isXpath ?
+      findElementWithShadowPathByXpathInDeepNodes(allDeepNodes, locator.locator) :
+      findElementWithShadowPathInDeepNodes(locator.locator, allDeepNodes);
+    if (elementWithPath && elementWithPath.element) {
+      return fixElementPath(root, elementWithPath)
+    }
+    return null
+  })
+}
+
+function findElementInShadowPath(root, elementPath, locator, isXpath) {
+  let shadowRoot = getNodeByShadowPath(root, elementPath);
+  if (!shadowRoot) {
+    return null
+  }
+  if (!isXpath) {
+    return shadowRoot.querySelector(locator)
+  }
+  if (shadowRoot === root) {
+    return getElementByXpath(root, locator)
+  }
+  let allNodes = shadowRoot.childNodes;
+  for (let i = 0; i < allNodes.length; i++) {
+    let element = getElementByXpath(allNodes[i], locator);
+    if (element) {
+      return element
+    }
+  }
+  return null
+}
+
+function getNodeByShadowPath(root, elementPath) {
+  const pathPattern = /\.querySelector\("(.*?)"\)\.shadowRoot/y;
+  let node = root;
+  while (pathPattern.lastIndex < elementPath.length) {
+    let stringMatch = pathPattern.exec(elementPath);
+    if (!stringMatch) {
+      return null
+    }
+    let host = node.querySelector(stringMatch[1]);
+    if (!host || !host.shadowRoot) {
+      return null
+    }
+    node = host.shadowRoot
+  }
+  return node
+}
+
+function clickDeep(root, locator, isXpath, fields, nativeActions) {
+  let element = isXpath ? findElementByXpath(root, locator) : findElement(root, locator);
+  if (!element) {
+    return null
+  }
+  element.scrollIntoView({block: 'center', inline: 'center'});
+  if (nativeActions) {
+    return {element: element}
+  }
+  element.click();
+  return {element: element, fields: readElementFields(element, fields)}
+}
+
+function setValueDeep(root, locator, isXpath, value, nativeActions) {
+  let element = isXpath ? findElementByXpath(root, locator) : findElement(root, locator);
+  if (!element) {
+    return null
+  }
+  element.scrollIntoView({block: 'center', inline: 'center'});
+  if (nativeActions) {
+    return {element: element}
+  }
+  element.focus();
+  let valueProperty = Object.getOwnPropertyDescriptor(Object.getPrototypeOf(element), 'value');
+  if (valueProperty && valueProperty.set) {
+    valueProperty.set.call(element, value)
+  } else if (element.isContentEditable) {
+    element.textContent = value
+  } else {
+    element.value = value
+  }
+  element.dispatchEvent(new Event('input', {bubbles: true, composed: true}));
+  element.dispatchEvent(new Event('change', {bubbles: true}));
+  return {element: element}
+}
+
+function readDeep(root, locator, isXpath, fields) {
+  let element = isXpath ? findElementByXpath(root, locator) : findElement(root, locator);
+  if (!element) {
+    return null
+  }
+  return {element: element, fields: readElementFields(element, fields)}
+}
+
+function readElementFields(element, fields) {
+  let values = {};
+  fields.forEach(field => {
+    values[field] = field.startsWith('@') ? element.getAttribute(field.substring(1)) : element[field]
+  });
+  return values
+}
+
+function findElementInFrames(root, querySelector) {
+  return findFirstElementInFrames(root, [], (frameRoot, allDeepNodes) =>
+    findElementWithShadowPath(frameRoot, querySelector, allDeepNodes))
+}
+
+function findElementsInFrames(root, querySelector) {
+  return findAllElementsInFrames(root, [], new Map(), (frameRoot, allDeepNodes) =>
+    findElementsWithShadowPath(frameRoot, querySelector, allDeepNodes))
+}
+
+function findElementInFramesByXpath(root, xpath) {
+  return findFirstElementInFrames(root, [], (frameRoot, allDeepNodes) =>
+    findElementWithShadowPathByXpath(frameRoot, xpath, allDeepNodes))
+}
+
+function findElementsInFramesByXpath(root, xpath) {
+  return findAllElementsInFrames(root, [], new Map(), (frameRoot, allDeepNodes) =>
+    findElementsWithShadowPathByXpath(frameRoot, xpath, allDeepNodes))
+}
+
+function findFirstElementInFrames(root, framePath, search) {
+  const allDeepNodes = collectAllDeepNodes(root);
+  let elementWithPath = search(root, allDeepNodes);
+  if (elementWithPath && elementWithPath.element) {
+    return addFramePath(elementWithPath, framePath, new Map())
+  }
+  let frames = findElementsWithShadowPath(root, FRAME_SELECTOR, allDeepNodes);
+  for (let i = 0; i < frames.length; i++) {
+    let frameDocument = getFrameDocument(frames[i].element);
+    if (frameDocument) {
+      let element = findFirstElementInFrames(frameDocument,
+        [...framePath, getFramePath(frames[i])], search);
+      if (element) {
+        return element
+      }
+    }
+  }
+  return null
+}
+
+function findAllElementsInFrames(root, framePath, elementIndexes, search) {
+  const allDeepNodes = collectAllDeepNodes(root);
+  let elementsWithFramePath = [];
+  search(root, allDeepNodes).forEach(elementWithPath => {
+    elementsWithFramePath.push(addFramePath(elementWithPath, framePath, elementIndexes))
+  });
+  findElementsWithShadowPath(root, FRAME_SELECTOR, allDeepNodes).forEach(frame => {
+    let frameDocument = getFrameDocument(frame.element);
+    if (frameDocument) {
+      elementsWithFramePath.push(...findAllElementsInFrames(frameDocument,
+        [...framePath, getFramePath(frame)], elementIndexes, search))
+    }
+  });
+  return elementsWithFramePath
+}
+
+function addFramePath(elementWithPath, framePath, elementIndexes) {
+  let element = elementWithPath.element;
+  return {
+    framePath: framePath,
+    elementPath: elementWithPath.elementPath,
+    elementIndex: getElementIndex(element, elementIndexes),
+    element: framePath.length === 0 ? element : null
+  }
+}
+
+function getElementIndex(element, elementIndexes) {
+  let rootNode = element.getRootNode();
+  let rootIndexes = elementIndexes.get(rootNode);
+  if (!rootIndexes) {
+    rootIndexes = new Map();
+    rootNode.querySelectorAll('*').forEach((node, i) => rootIndexes.set(node, i));
+    elementIndexes.set(rootNode, rootIndexes)
+  }
+  return rootIndexes.get(element)
+}
+
+function getFramePath(frameWithPath) {
+  let frame = frameWithPath.element;
+  let frameIndex = [...frame.getRootNode().querySelectorAll(FRAME_SELECTOR)].indexOf(frame);
+  return `${frameWithPath.elementPath}.querySelectorAll("${FRAME_SELECTOR}")[${frameIndex}]`
+}
+
+function getFrameDocument(frame) {
+  try {
+    return frame.contentDocument
+  } catch (e) {
+    return null
+  }
+}
+
+function getElementByIndex(root, elementIndex, locator, isXpath) {
+  let element = root ? root.querySelectorAll('*')[elementIndex] : null;
+  if (!element) {
+    return null
+  }
+  if (!isXpath) {
+    return element.matches(locator) ? element : null
+  }
+  let contextNodes = root.nodeType === Node.DOCUMENT_NODE ? [root] : [...root.childNodes];
+  return contextNodes.some(node => getElementsByXpath(node, locator).includes(element)) ? element : null
+}
+
+function compactElementsWithPath(elementsWithPath) {
+  const paths = [];
+  const pathIndexes = [];
+  const elements = [];
+  const pathTable = new Map();
+  elementsWithPath.forEach(elementWithPath => {
+    let pathIndex = pathTable.get(elementWithPath.elementPath);
+    if (pathIndex === undefined) {
+      pathIndex = paths.length;
+      paths.push(elementWithPath.elementPath);
+      pathTable.set(elementWithPath.elementPath, pathIndex)
+    }
+    pathIndexes.push(pathIndex);
+    elements.push(elementWithPath.element)
+  });
+  return {paths: paths, pathIndexes: pathIndexes, elements: elements}
+}
+
 function fixElementPath(root, elementWithPath) {
-  if (root !== document) {
+  if (root.nodeType !== Node.DOCUMENT_NODE) {
     let rootLocator = getElementLocator(root);
     let stringMatch = elementWithPath.elementPath.match(/^\.querySelector\("(.*)"\)(.*)/);
     if (stringMatch && stringMatch[1] === rootLocator) {
@@ -96,7 +363,7 @@ function fixElementPath(root, elementWithPath) {
 }
 
 function fixElementsWithPath(root, elementsWithPath) {
-  if (root !== document) {
+  if (root.nodeType !== Node.DOCUMENT_NODE) {
     let rootLocator = getElementLocator(root);
     for (let i = 0; i < elementsWithPath.length; i++) {
       let stringMatch = elementsWithPath[i].elementPath.match(/^\.querySelector\("(.*?)"\)(.*)/);
@@ -109,14 +376,14 @@ function fixElementsWithPath(root, elementsWithPath) {
 }
 
 function getElementByXpath(root, xpath) {
-  return document
+  return (root.ownerDocument || root)
     .evaluate(xpath, root, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)
     .singleNodeValue
 }
 
 function getElementsByXpath(root, xpath) {
   let NodeList = [];
-  let nodesSnapshot = document.evaluate(xpath, root,
+  let nodesSnapshot = (root.ownerDocument || root).evaluate(xpath, root,
     null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
   for (let i = 0; i < nodesSnapshot.snapshotLength; i++) {
     NodeList.push(nodesSnapshot.snapshotItem(i))
@@ -124,6 +391,95 @@ function getElementsByXpath(root, xpath) {
   return NodeList
 }
 
+function getTextMatcher(mode, text) {
+  switch (mode) {
+    case 'exact':
+      return textContent => textContent.trim() === text;
+    case 'contains':
+      return textContent => textContent.includes(text);
+    case 'regex': {
+      const regex = new RegExp(text);
+      return textContent => regex.test(textContent);
+    }
+    case 'normalized': {
+      const normalizedText = normalizeWhitespaces(text);
+      return textContent => normalizeWhitespaces(textContent) === normalizedText;
+    }
+    default:
+      throw new Error(`There is no such text match mode: ${mode}`)
+  }
+}
+
+function normalizeWhitespaces(text) {
+  return text.replace(/\s+/g, ' ').trim()
+}
+
+function getElementsByText(root, textMatcher, restriction, firstOnly) {
+  let NodeList = [];
+  let checkedElements = new Set();
+  let textNodes = (root.ownerDocument || root).createTreeWalker(root, NodeFilter.SHOW_TEXT);
+  while (textNodes.nextNode()) {
+    let element = textNodes.currentNode.parentElement;
+    if (!element || IGNORED_TEXT_TAGS.includes(element.tagName.toLowerCase())) {
+      continue
+    }
+    if (restriction) {
+      element = element.closest(restriction);
+    }
+    if (!element || checkedElements.has(element) || !root.contains(element)) {
+      continue
+    }
+    checkedElements.add(element);
+    if (textMatcher(element.textContent)) {
+      NodeList.push(element);
+      if (firstOnly) {
+        break
+      }
+    }
+  }
+  return NodeList
+}
+
+function findElementByTextInDeepNodes(nodes, textMatcher, restriction) {
+  if (Array.isArray(nodes)) {
+    let element = null;
+    for (let i = 0; i < nodes.length; i++) {
+      element = findElementByTextInDeepNodes(nodes[i], textMatcher, restriction);
+      if (element) {
+        return element
+      }
+    }
+    return element
+  } else {
+    if (nodes) {
+      let elements = getElementsByText(nodes.shadowRoot, textMatcher, restriction, true);
+      return elements.length !== 0 ? elements[0] : null
+    } else {
+      return null
+    }
+  }
+}
+
+function findElementsByTextInDeepNodes(nodes, textMatcher, restriction) {
+  let NodeList = [];
+  const searchForElements = function (nodes) {
+    if (Array.isArray(nodes)) {
+      for (let i = 0; i < nodes.length; i++) {
+        searchForElements(nodes[i])
+      }
+    } else {
+      if (nodes) {
+        let foundElements = getElementsByText(nodes.shadowRoot, textMatcher, restriction, false);
+        if (foundElements.length !== 0) {
+          NodeList.push(...foundElements)
+        }
+      }
+    }
+  };
+  searchForElements(nodes);
+  return NodeList
+}
+
 function findElementByXpathInDeepNodes(nodes, xpath) {
   if (Array.isArray(nodes)) {
     let element = null;
@@ -420,4 +776,209 @@ function collectAllDeepNodes(root) {
     allDeepNodes.push(...deepNodes)
   }
   return allDeepNodes
-}
\ No newline at end of file
+}
+
+function collectAllShadowRoots(root) {
+  const allShadowRoots = [];
+  const findShadowRoots = function (nodes) {
+    for (let i = 0; i < nodes.length; i++) {
+      if (nodes[i] && nodes[i].shadowRoot) {
+        allShadowRoots.push(nodes[i].shadowRoot);
+        findShadowRoots(nodes[i].shadowRoot.querySelectorAll('*'))
+      }
+    }
+  };
+
+  if (root && root.shadowRoot) {
+    findShadowRoots([root])
+  }
+  findShadowRoots(root.querySelectorAll('*'));
+  return allShadowRoots
+}
+
+function getShadowRootSearchState() {
+  if (!window.__shadowRootSearch) {
+    const state = {nextWatchId: 1, watches: {}, shadowRootListeners: new Set()};
+    const attachShadow = Element.prototype.attachShadow;
+    Element.prototype.attachShadow = function () {
+      const shadowRoot = attachShadow.apply(this, arguments);
+      state.shadowRootListeners.forEach(listener => listener(shadowRoot));
+      return shadowRoot
+    };
+    window.__shadowRootSearch = state
+  }
+  return window.__shadowRootSearch
+}
+
+function watchElements(root, querySelector) {
+  const state = getShadowRootSearchState();
+  const watchId = state.nextWatchId++;
+  const matchedElements = new Set(findElements(root, querySelector));
+  let events = [];
+  let waiter = null;
+  let timer = null;
+
+  const cancelWaiter = function () {
+    clearTimeout(timer);
+    timer = null;
+    waiter = null
+  };
+  const addEvent = function (type, element) {
+    if (events.length === MAX_WATCH_EVENTS) {
+      events.shift()
+    }
+    events.push({type: type, element: element});
+    if (waiter) {
+      waiter()
+    }
+  };
+  const checkElement = function (element) {
+    if (element.nodeType !== Node.ELEMENT_NODE) {
+      return
+    }
+    if (element.isConnected && element.matches(querySelector)) {
+      if (!matchedElements.has(element)) {
+        matchedElements.add(element);
+        addEvent('added', element)
+      }
+    } else if (matchedElements.delete(element)) {
+      addEvent('removed', element)
+    }
+  };
+  const observerOptions = {childList: true, subtree: true, attributes: true};
+  const checkSubtree = function (target) {
+    checkElement(target);
+    findElements(target, querySelector).forEach(checkElement);
+    matchedElements.forEach(element => {
+      if (target.contains(element)) {
+        checkElement(element)
+      }
+    })
+  };
+  const observer = new MutationObserver(mutations => {
+    let hasRemovedNodes = false;
+    const attributeTargets = new Set();
+    mutations.forEach(mutation => {
+      if (mutation.type === 'attributes') {
+        attributeTargets.add(mutation.target);
+        return
+      }
+      hasRemovedNodes = hasRemovedNodes || mutation.removedNodes.length !== 0;
+      mutation.addedNodes.forEach(node => {
+        if (node.nodeType !== Node.ELEMENT_NODE || !node.isConnected) {
+          return
+        }
+        collectAllShadowRoots(node).forEach(shadowRoot => observer.observe(shadowRoot, observerOptions));
+        checkElement(node);
+        findElements(node, querySelector).forEach(checkElement)
+      })
+    });
+    attributeTargets.forEach(checkSubtree);
+    if (hasRemovedNodes) {
+      matchedElements.forEach(element => {
+        if (!element.isConnected) {
+          matchedElements.delete(element);
+          addEvent('removed', element)
+        }
+      })
+    }
+  });
+  const observeShadowRoot = shadowRoot => observer.observe(shadowRoot, observerOptions);
+
+  observer.observe(root, observerOptions);
+  collectAllShadowRoots(root).forEach(observeShadowRoot);
+  state.shadowRootListeners.add(observeShadowRoot);
+  state.watches[watchId] = {
+    drain: function () {
+      const drainedEvents = events;
+      cancelWaiter();
+      events = [];
+      return drainedEvents
+    },
+    await: function (timeout, callback) {
+      cancelWaiter();
+      if (events.length !== 0) {
+        return callback(true)
+      }
+      timer = setTimeout(() => waiter(), timeout);
+      waiter = () => {
+        const hasEvents = events.length !== 0;
+        cancelWaiter();
+        callback(hasEvents)
+      }
+    },
+    disconnect: function () {
+      cancelWaiter();
+      observer.disconnect();
+      state.shadowRootListeners.delete(observeShadowRoot);
+      delete state.watches[watchId]
+    }
+  };
+  return watchId
+}
+
+function getQueryCache() {
+  const state = getShadowRootSearchState();
+  if (!state.queryCache) {
+    const queryCache = {generation: 0, caches: new Map()};
+    const observerOptions = {childList: true, subtree: true, attributes: true, characterData: true};
+    const observeAddedShadowRoots = mutations => mutations.forEach(mutation => {
+      mutation.addedNodes.forEach(node => {
+        if (node.nodeType === Node.ELEMENT_NODE && node.isConnected) {
+          collectAllShadowRoots(node).forEach(observeShadowRoot)
+        }
+      })
+    });
+    const observer = new MutationObserver(mutations => {
+      queryCache.generation++;
+      observeAddedShadowRoots(mutations)
+    });
+    const observeShadowRoot = shadowRoot => observer.observe(shadowRoot, observerOptions);
+    queryCache.sync = function () {
+      const mutations = observer.takeRecords();
+      if (mutations.length !== 0) {
+        queryCache.generation++;
+        observeAddedShadowRoots(mutations)
+      }
+      return queryCache.generation
+    };
+    queryCache.remove = function (cacheId) {
+      queryCache.caches.delete(cacheId);
+      if (queryCache.caches.size === 0) {
+        observer.disconnect();
+        state.shadowRootListeners.delete(observeShadowRoot);
+        delete state.queryCache
+      }
+    };
+
+    observer.observe(document, observerOptions);
+    collectAllShadowRoots(document).forEach(observeShadowRoot);
+    state.shadowRootListeners.add(observeShadowRoot);
+    state.queryCache = queryCache
+  }
+  return state.queryCache
+}
+
+function findElementsCached(root, cacheId, cacheKeyFields, maxSize, search) {
+  const queryCache = getQueryCache();
+  let entries = queryCache.caches.get(cacheId);
+  if (!entries) {
+    entries = new Map();
+    queryCache.caches.set(cacheId, entries)
+  }
+  const cacheKey = JSON.stringify(cacheKeyFields);
+  const generation = queryCache.sync();
+  let entry = entries.get(cacheKey);
+  entries.delete(cacheKey);
+  if (entry && entry.root === root && entry.generation === generation) {
+    entries.set(cacheKey, entry);
+    return {hit: true, generation: generation, elements: entry.elements}
+  }
+
+  entry = {root: root, generation: generation, elements: search()};
+  entries.set(cacheKey, entry);
+  while (entries.size > maxSize) {
+    entries.delete(entries.keys().next().value)
+  }
+  return {hit: false, generation: generation, elements: entry.elements}
+}
@@ -10,15 +10,20 @@ import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.net.URL;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 public class ShadowRootSearchTest {
 
@@ -236,6 +241,49 @@ public class ShadowRootSearchTest {
     }
   }
 
+  @Test
+  public void testFindElementsWithShadowPathSharesPaths() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String elementCss = ".shadow-button, .shadow-input";
+    List<Map<String, Object>> elements =
+        shadowRootSearch.findElementsWithShadowPath(By.cssSelector(elementCss));
+
+    assert elements.size() == 2;
+    assert elements.get(0).get("elementPath") == elements.get(1).get("elementPath");
+    for (Map<String, Object> element : elements) {
+      String shadowPathJs = (String) element.get("elementPath");
+      WebElement webElement = (WebElement) element.get("element");
+      WebElement shadowPath =
+          (WebElement) jsExecutor(driver).executeScript("return document" + shadowPathJs);
+
+      assert shadowPath.findElements(By.cssSelector(elementCss)).contains(webElement);
+    }
+  }
+
+  @Test
+  public void testFindElementsWithShadowPathIsMutable() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String elementCss = ".shadow-button, .shadow-input";
+    List<Map<String, Object>> elements =
+        shadowRootSearch.findElementsWithShadowPath(By.cssSelector(elementCss));
+    Map<String, Object> first = elements.get(0);
+    Map<String, Object> second = elements.get(1);
+
+    Collections.reverse(elements);
+    assert elements.get(0) == second && elements.get(1) == first;
+
+    elements.remove(0);
+    elements.add(second);
+    assert elements.size() == 2;
+    assert elements.get(0) == first && elements.get(1) == second;
+  }
+
   @Test
   public void testFindElementWithShadowPathOutside() throws Exception {
     driver = getChromeDriver();
@@ -442,6 +490,655 @@ public class ShadowRootSearchTest {
         () -> shadowRootSearch.findElementWithShadowPath(By.cssSelector(elementCss)));
   }
 
+  @Test
+  public void testFindElementByExactText() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String text = "Inside Shadow DOM #2";
+    WebElement element = shadowRootSearch.findElement(ByText.exact(text));
+
+    assert element.getText().equals(text);
+  }
+
+  @Test
+  public void testFindElementsByContainedText() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String text = "Inside Shadow DOM";
+    List<WebElement> elements = shadowRootSearch.findElements(ByText.contains(text));
+
+    assert elements.size() == 2;
+    for (WebElement element : elements) {
+      assert element.getText().contains(text);
+    }
+  }
+
+  @Test
+  public void testFindElementsByTextRegex() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String regex = "^DOM element #\\d$";
+    List<WebElement> elements = shadowRootSearch.findElements(ByText.matching(regex));
+
+    assert elements.size() == 2;
+    for (WebElement element : elements) {
+      assert element.getText().contains("DOM element");
+    }
+  }
+
+  @Test
+  public void testFindElementByNormalizedText() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String text = "  Inside   Shadow DOM #1 ";
+    WebElement element = shadowRootSearch.findElement(ByText.normalized(text));
+
+    assert element.getText().contains("Inside Shadow DOM #1");
+  }
+
+  @Test
+  public void testFindElementByNormalizedMultilineText() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String text = "Inside\n Shadow DOM #2";
+    WebElement element = shadowRootSearch.findElement(ByText.normalized(text));
+
+    assert element.getText().equals("Inside Shadow DOM #2");
+  }
+
+  @Test
+  public void testFindElementsByTextWithin() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    List<WebElement> elements = shadowRootSearch.findElements(ByText.contains("#").within("h2"));
+
+    assert elements.size() == 2;
+    for (WebElement element : elements) {
+      assert element.getTagName().equals("h2");
+    }
+  }
+
+  @Test
+  public void testFindElementByTextWithDriver() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    waitUntilPageLoaded();
+    String text = "Inside Shadow DOM #2";
+    WebElement element = driver.findElement(ByText.exact(text));
+
+    assert element.getText().equals(text);
+  }
+
+  @Test
+  public void testFindElementByTextNegative() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    Assert.assertThrows(
+        NoSuchElementException.class, () -> shadowRootSearch.findElement(ByText.exact("Wrong")));
+  }
+
+  @Test
+  public void testFindElementInFrames() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent("frames.html"));
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String elementCss = ".framed";
+    Map<String, Object> element = shadowRootSearch.findElementInFrames(By.cssSelector(elementCss));
+
+    assert ((List<?>) element.get("framePath")).size() == 1;
+    assert element.get("element") == null;
+    assert shadowRootSearch.switchToFrameOf(element).getText().equals("Frame element #1");
+  }
+
+  @Test
+  public void testFindElementsInFrames() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent("frames.html"));
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String elementCss = ".framed";
+    List<Map<String, Object>> elements =
+        shadowRootSearch.findElementsInFrames(By.cssSelector(elementCss));
+
+    assert elements.size() == 2;
+    for (Map<String, Object> element : elements) {
+      assert shadowRootSearch.switchToFrameOf(element).getText().startsWith("Frame element");
+    }
+  }
+
+  @Test
+  public void testFindElementsInFramesByXpath() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent("frames.html"));
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String elementXpath = ".//*[@class='framed']";
+    List<Map<String, Object>> elements =
+        shadowRootSearch.findElementsInFrames(By.xpath(elementXpath));
+
+    assert elements.size() == 2;
+    for (Map<String, Object> element : elements) {
+      assert shadowRootSearch.switchToFrameOf(element).getText().startsWith("Frame element");
+    }
+  }
+
+  @Test
+  public void testFindElementInFramesOutside() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent("frames.html"));
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String elementCss = ".inside";
+    Map<String, Object> element = shadowRootSearch.findElementInFrames(By.cssSelector(elementCss));
+
+    assert ((List<?>) element.get("framePath")).isEmpty();
+    assert ((WebElement) element.get("element")).getText().equals("Inside Shadow DOM #1");
+  }
+
+  @Test
+  public void testFindElementInFramesFromFrame() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent("frames.html"));
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    driver.switchTo().frame(driver.findElement(By.id("frame-outside")));
+    Map<String, Object> element = shadowRootSearch.findElementInFrames(By.cssSelector(".inside"));
+
+    assert ((WebElement) element.get("element")).getText().equals("Inside Shadow DOM #1");
+  }
+
+  @Test
+  public void testSwitchToFrameOfShiftedElementNegative() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent("frames.html"));
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    Map<String, Object> element = shadowRootSearch.findElementInFrames(By.cssSelector(".framed"));
+    jsExecutor(driver)
+        .executeScript(
+            "let frameDocument = document.querySelector('#frame-outside').contentDocument;"
+                + "frameDocument.body.prepend(frameDocument.createElement('p'));");
+
+    Assert.assertThrows(
+        NoSuchElementException.class, () -> shadowRootSearch.switchToFrameOf(element));
+  }
+
+  @Test
+  public void testFindElementInFramesNegative() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent("frames.html"));
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    String elementCss = ".wrong";
+    Assert.assertThrows(
+        NoSuchElementException.class,
+        () -> shadowRootSearch.findElementInFrames(By.cssSelector(elementCss)));
+  }
+
+  @Test
+  public void testWatchElementsInShadowRoot() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    try (ShadowRootWatch watch = shadowRootSearch.watch(By.cssSelector(".toast"))) {
+      jsExecutor(driver)
+          .executeScript(
+              "let toast = document.createElement('div');"
+                  + "toast.className = 'toast';"
+                  + "toast.textContent = 'Toast';"
+                  + "document.querySelector('#shadow-dom-container').shadowRoot"
+                  + ".appendChild(toast);");
+      List<ShadowRootWatch.Event> events = watch.await(5000);
+
+      assert events.size() == 1;
+      assert events.get(0).getType() == ShadowRootWatch.Event.Type.ADDED;
+      assert events.get(0).getElement().getText().equals("Toast");
+
+      jsExecutor(driver)
+          .executeScript(
+              "document.querySelector('#shadow-dom-container').shadowRoot"
+                  + ".querySelector('.toast').remove();");
+      events = watch.await(5000);
+
+      assert events.size() == 1;
+      assert events.get(0).getType() == ShadowRootWatch.Event.Type.REMOVED;
+    }
+  }
+
+  @Test
+  public void testWatchElementsInNewShadowRoot() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    try (ShadowRootWatch watch = shadowRootSearch.watch(By.className("toast"))) {
+      jsExecutor(driver)
+          .executeScript(
+              "let host = document.createElement('div');"
+                  + "document.body.appendChild(host);"
+                  + "let root = host.attachShadow({mode: 'open'});"
+                  + "setTimeout(() => {"
+                  + "  let toast = document.createElement('div');"
+                  + "  toast.className = 'toast';"
+                  + "  root.appendChild(toast);"
+                  + "}, 100);");
+      Iterator<ShadowRootWatch.Event> events = watch.events(5000);
+
+      assert events.hasNext();
+      assert events.next().getType() == ShadowRootWatch.Event.Type.ADDED;
+      assert watch.poll().isEmpty();
+    }
+  }
+
+  @Test
+  public void testWatchElementsOnAncestorAttributeChange() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    jsExecutor(driver)
+        .executeScript(
+            "let list = document.createElement('div');"
+                + "list.id = 'list';"
+                + "list.innerHTML = '<div class=\"row\">Row</div>';"
+                + "document.querySelector('#shadow-dom-container').shadowRoot"
+                + ".appendChild(list);");
+    try (ShadowRootWatch watch = shadowRootSearch.watch(By.cssSelector(".open .row"))) {
+      String toggleScript =
+          "document.querySelector('#shadow-dom-container').shadowRoot"
+              + ".querySelector('#list').classList.toggle('open');";
+      jsExecutor(driver).executeScript(toggleScript);
+      List<ShadowRootWatch.Event> events = watch.await(5000);
+
+      assert events.size() == 1;
+      assert events.get(0).getType() == ShadowRootWatch.Event.Type.ADDED;
+
+      jsExecutor(driver).executeScript(toggleScript);
+      events = watch.await(5000);
+
+      assert events.size() == 1;
+      assert events.get(0).getType() == ShadowRootWatch.Event.Type.REMOVED;
+    }
+  }
+
+  @Test
+  public void testWatchAwaitAbandonedOnScriptTimeout() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    driver.manage().timeouts().setScriptTimeout(200, TimeUnit.MILLISECONDS);
+    try (ShadowRootWatch watch = shadowRootSearch.watch(By.cssSelector(".toast"))) {
+      assert watch.await(5000).isEmpty();
+
+      jsExecutor(driver)
+          .executeScript(
+              "let toast = document.createElement('div');"
+                  + "toast.className = 'toast';"
+                  + "document.querySelector('#shadow-dom-container').shadowRoot"
+                  + ".appendChild(toast);");
+      Thread.sleep(100);
+      List<ShadowRootWatch.Event> events = watch.poll();
+
+      assert events.size() == 1;
+      assert events.get(0).getType() == ShadowRootWatch.Event.Type.ADDED;
+    }
+  }
+
+  @Test
+  public void testWatchByXpathNegative() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    Assert.assertThrows(
+        Exception.class, () -> shadowRootSearch.watch(By.xpath(".//*[@class='toast']")));
+  }
+
+  @Test
+  public void testUnsupportedByTextNegative() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    ByText selector = ByText.contains("Inside");
+
+    Exception exception =
+        Assert.assertThrows(
+            Exception.class, () -> shadowRootSearch.findElementWithShadowPath(selector));
+    assert exception
+        .getMessage()
+        .equals("findElementWithShadowPath is not supported for locator type: textContains");
+    Assert.assertThrows(
+        Exception.class, () -> shadowRootSearch.findElementsWithShadowPath(selector));
+    Assert.assertThrows(Exception.class, () -> shadowRootSearch.findElementsInFrames(selector));
+    Assert.assertThrows(Exception.class, () -> shadowRootSearch.clickDeep(selector));
+    Assert.assertThrows(Exception.class, () -> shadowRootSearch.watch(selector));
+  }
+
+  @Test
+  public void testFindElementWithHostHints() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    shadowRootSearch.enableHostHints(10);
+    waitUntilPageLoaded();
+    String elementCss = "h2.inside";
+    WebElement element = shadowRootSearch.findElement(By.cssSelector(elementCss));
+
+    assert element.getText().equals("Inside Shadow DOM #2");
+    assert shadowRootSearch.getHostHints().getMisses() == 1;
+    assert shadowRootSearch.getHostHints().getHits() == 0;
+
+    jsExecutor(driver).executeScript("arguments[0].textContent = 'Re-rendered';", element);
+    element = shadowRootSearch.findElement(By.cssSelector(elementCss));
+
+    assert element.getText().equals("Re-rendered");
+    assert shadowRootSearch.getHostHints().getHits() == 1;
+  }
+
+  @Test
+  public void testFindElementWithHostHintsByXpath() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    shadowRootSearch.enableHostHints(10);
+    waitUntilPageLoaded();
+    String elementXpath = ".//h2[@class='inside']";
+    shadowRootSearch.findElement(By.xpath(elementXpath));
+    Map<String, Object> element =
+        shadowRootSearch.findElementWithShadowPath(By.xpath(elementXpath));
+    String shadowPathJs = (String) element.get("elementPath");
+    WebElement shadowPath =
+        (WebElement) jsExecutor(driver).executeScript("return document" + shadowPathJs);
+
+    assert shadowRootSearch.getHostHints().getHits() == 1;
+    assert shadowPath.findElement(By.cssSelector(".inside")).equals(element.get("element"));
+  }
+
+  @Test
+  public void testHostHintsCapacity() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    shadowRootSearch.enableHostHints(1);
+    waitUntilPageLoaded();
+    shadowRootSearch.findElement(By.cssSelector("h1.inside"));
+    shadowRootSearch.findElement(By.cssSelector("h2.inside"));
+    shadowRootSearch.findElement(By.cssSelector("h1.inside"));
+
+    assert shadowRootSearch.getHostHints().size() == 1;
+    assert shadowRootSearch.getHostHints().getHits() == 0;
+    assert shadowRootSearch.getHostHints().getMisses() == 3;
+  }
+
+  @Test
+  public void testFindElementWithHostHintsNegative() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    shadowRootSearch.enableHostHints(10);
+    waitUntilPageLoaded();
+    Assert.assertThrows(
+        NoSuchElementException.class,
+        () -> shadowRootSearch.findElement(By.cssSelector(".wrong")));
+    assert shadowRootSearch.getHostHints().size() == 0;
+  }
+
+  @Test
+  public void testShadowPageFactoryLazyElements() throws Exception {
+    driver = getChromeDriver();
+    ShadowPage page = new ShadowPage();
+    ShadowPageFactory.initElements(new ShadowRootSearch(driver), page);
+    driver.get(getPageContent());
+    waitUntilPageLoaded();
+
+    assert page.insideElement.getText().equals("Inside Shadow DOM #2");
+    assert page.insideElements.size() == 2;
+    assert page.outsideElement.getText().equals("DOM element #1");
+  }
+
+  @Test
+  public void testShadowPageFactoryResolveAll() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    waitUntilPageLoaded();
+    ShadowPage page = new ShadowPage();
+    ShadowPageFactory.initElements(new ShadowRootSearch(driver), page);
+
+    assert ShadowPageFactory.resolveAll(page) == 2;
+    assert ShadowPageFactory.resolveAll(page) == 0;
+    assert page.insideElement.getText().equals("Inside Shadow DOM #2");
+    assert page.linkElement.getText().equals("Link");
+  }
+
+  @Test
+  public void testShadowPageFactoryStaleElement() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    waitUntilPageLoaded();
+    ShadowPage page = new ShadowPage();
+    ShadowPageFactory.initElements(new ShadowRootSearch(driver), page);
+    WebElement element = ((WrapsElement) page.insideElement).getWrappedElement();
+
+    jsExecutor(driver)
+        .executeScript(
+            "let h2 = document.createElement('h2');"
+                + "h2.className = 'inside';"
+                + "h2.textContent = 'Re-rendered';"
+                + "arguments[0].replaceWith(h2);",
+            element);
+
+    assert page.insideElement.getText().equals("Re-rendered");
+  }
+
+  @Test
+  public void testClickDeep() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    Map<String, Object> fields =
+        shadowRootSearch.clickDeep(By.cssSelector(".shadow-button"), "textContent");
+
+    assert fields.get("textContent").equals("Clicked");
+  }
+
+  @Test
+  public void testSetValueDeepAndReadDeep() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    shadowRootSearch.setValueDeep(By.xpath(".//input[@class='shadow-input']"), "value");
+    Map<String, Object> buttonFields =
+        shadowRootSearch.readDeep(By.cssSelector(".shadow-button"), "@aria-label", "tagName");
+    Map<String, Object> inputFields =
+        shadowRootSearch.readDeep(By.cssSelector(".shadow-input"), "value");
+
+    assert buttonFields.get("@aria-label").equals("Typed value");
+    assert buttonFields.get("tagName").equals("BUTTON");
+    assert inputFields.get("value").equals("value");
+  }
+
+  @Test
+  public void testDeepActionsWithNativeActions() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    shadowRootSearch.setNativeActions(true);
+    waitUntilPageLoaded();
+    WebElement input = shadowRootSearch.setValueDeep(By.cssSelector(".shadow-input"), "value");
+    Map<String, Object> fields =
+        shadowRootSearch.clickDeep(By.cssSelector(".shadow-button"), "textContent", "@aria-label");
+
+    assert input.getAttribute("value").equals("value");
+    assert fields.get("textContent").equals("Clicked");
+    assert fields.get("@aria-label").equals("Typed value");
+  }
+
+  @Test
+  public void testClickDeepNegative() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    Assert.assertThrows(
+        NoSuchElementException.class, () -> shadowRootSearch.clickDeep(By.cssSelector(".wrong")));
+  }
+
+  @Test
+  public void testFindElementsWithQueryCache() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    shadowRootSearch.enableQueryCache(10);
+    waitUntilPageLoaded();
+    String elementCss = ".inside";
+    List<WebElement> elements = shadowRootSearch.findElements(By.cssSelector(elementCss));
+
+    assert !shadowRootSearch.getQueryCache().isLastHit();
+
+    List<WebElement> cachedElements = shadowRootSearch.findElements(By.cssSelector(elementCss));
+
+    assert shadowRootSearch.getQueryCache().isLastHit();
+    assert cachedElements.equals(elements);
+
+    jsExecutor(driver)
+        .executeScript(
+            "let h3 = document.createElement('h3');"
+                + "h3.className = 'inside';"
+                + "document.querySelector('#shadow-dom-container').shadowRoot.appendChild(h3);");
+    elements = shadowRootSearch.findElements(By.cssSelector(elementCss));
+
+    assert !shadowRootSearch.getQueryCache().isLastHit();
+    assert elements.size() == cachedElements.size() + 1;
+    assert shadowRootSearch.getQueryCache().getHits() == 1;
+    assert shadowRootSearch.getQueryCache().getMisses() == 2;
+  }
+
+  @Test
+  public void testFindElementsByTextWithQueryCache() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    shadowRootSearch.enableQueryCache(1);
+    waitUntilPageLoaded();
+    shadowRootSearch.findElements(ByText.contains("Inside"));
+    shadowRootSearch.findElements(By.xpath(".//h2"));
+    shadowRootSearch.findElements(ByText.contains("Inside"));
+
+    assert shadowRootSearch.getQueryCache().getHits() == 0;
+    assert shadowRootSearch.getQueryCache().getMisses() == 3;
+
+    List<WebElement> elements = shadowRootSearch.findElements(ByText.contains("Inside"));
+
+    assert shadowRootSearch.getQueryCache().isLastHit();
+    assert elements.size() == 2;
+  }
+
+  @Test
+  public void testQueryCacheKeepsTextAndRestrictionApart() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    shadowRootSearch.enableQueryCache(10);
+    waitUntilPageLoaded();
+    ByText textWithinInText = ByText.contains("Inside Shadow DOM #1 within h1");
+    ByText textWithinRestriction = ByText.contains("Inside Shadow DOM #1").within("h1");
+
+    assert !textWithinInText.equals(textWithinRestriction);
+    assert shadowRootSearch.findElements(textWithinInText).isEmpty();
+
+    List<WebElement> elements = shadowRootSearch.findElements(textWithinRestriction);
+
+    assert !shadowRootSearch.getQueryCache().isLastHit();
+    assert elements.size() == 1;
+  }
+
+  @Test
+  public void testQueryCacheObservesShadowRootsOfAddedSubtree() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    waitUntilPageLoaded();
+    jsExecutor(driver)
+        .executeScript(
+            "window.detachedHost = document.createElement('div');"
+                + "detachedHost.attachShadow({mode: 'open'});");
+    shadowRootSearch.enableQueryCache(10);
+    String elementCss = ".late";
+    shadowRootSearch.findElements(By.cssSelector(elementCss));
+    jsExecutor(driver).executeScript("document.body.appendChild(window.detachedHost);");
+    shadowRootSearch.findElements(By.cssSelector(elementCss));
+    shadowRootSearch.findElements(By.cssSelector(elementCss));
+
+    assert shadowRootSearch.getQueryCache().isLastHit();
+
+    jsExecutor(driver)
+        .executeScript(
+            "let h3 = document.createElement('h3');"
+                + "h3.className = 'late';"
+                + "window.detachedHost.shadowRoot.appendChild(h3);");
+    List<WebElement> elements = shadowRootSearch.findElements(By.cssSelector(elementCss));
+
+    assert !shadowRootSearch.getQueryCache().isLastHit();
+    assert elements.size() == 1;
+  }
+
+  @Test
+  public void testQueryCachePerInstance() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch first = new ShadowRootSearch(driver);
+    ShadowRootSearch second = new ShadowRootSearch(driver);
+    first.enableQueryCache(1);
+    second.enableQueryCache(1);
+    waitUntilPageLoaded();
+    first.findElements(By.cssSelector(".inside"));
+    second.findElements(By.cssSelector(".outside"));
+    first.findElements(By.cssSelector(".inside"));
+
+    assert first.getQueryCache().isLastHit();
+
+    second.disableQueryCache();
+    first.findElements(By.cssSelector(".inside"));
+
+    assert first.getQueryCache().isLastHit();
+    assert first.getQueryCache().getHits() == 2;
+  }
+
+  @Test
+  public void testDisableQueryCacheDisconnectsPage() throws Exception {
+    driver = getChromeDriver();
+    driver.get(getPageContent());
+    ShadowRootSearch shadowRootSearch = new ShadowRootSearch(driver);
+    shadowRootSearch.enableQueryCache(10);
+    waitUntilPageLoaded();
+    shadowRootSearch.findElements(By.cssSelector(".inside"));
+    shadowRootSearch.disableQueryCache();
+
+    assert shadowRootSearch.getQueryCache() == null;
+    assert (Boolean)
+        jsExecutor(driver).executeScript("return !window.__shadowRootSearch.queryCache;");
+  }
+
   @BeforeAll
   public static void setUp() {
     WebDriverManager.chromedriver().setup();
@@ -479,11 +1176,29 @@ public class ShadowRootSearchTest {
   }
 
   private static String getPageContent() throws Exception {
-    String fileName = "index.html";
+    return getPageContent("index.html");
+  }
+
+  private static String getPageContent(String fileName) throws Exception {
     URL url = ShadowRootSearchTest.class.getClassLoader().getResource(fileName);
     if (url == null) {
       throw new Exception("No such file: " + fileName);
     }
     return "file://" + Objects.requireNonNull(url).getPath();
   }
+
+  public static class ShadowPage {
+
+    @FindByShadow(css = "h2.inside")
+    private WebElement insideElement;
+
+    @FindByShadow(className = "inside")
+    private List<WebElement> insideElements;
+
+    @FindByShadow(xpath = ".//a")
+    private WebElement linkElement;
+
+    @FindBy(css = ".outside")
+    private WebElement outsideElement;
+  }
 }
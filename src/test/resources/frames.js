@@ -0,0 +1,19 @@
+(function () {
+  let root = document.querySelector("#shadow-dom-container").attachShadow({mode: "open"});
+  let h1 = document.createElement("h1");
+  h1.textContent = "Inside Shadow DOM #1";
+  h1.className = "inside";
+  root.appendChild(h1);
+
+  let iframe = document.createElement("iframe");
+  iframe.id = "frame-inside";
+  iframe.srcdoc = "<div id='frame-shadow-container'></div>" +
+    "<script>" +
+    "let root = document.querySelector('#frame-shadow-container').attachShadow({mode: 'open'});" +
+    "let h2 = document.createElement('h2');" +
+    "h2.textContent = 'Frame element #2';" +
+    "h2.className = 'framed';" +
+    "root.appendChild(h2);" +
+    "<\/script>";
+  root.appendChild(iframe);
+})()
@@ -5,6 +5,17 @@
   h1.className = "inside";
   root.appendChild(h1);
 
+  let button = document.createElement("button");
+  button.className = "shadow-button";
+  button.textContent = "Click me";
+  button.addEventListener("click", () => button.textContent = "Clicked");
+  root.appendChild(button);
+
+  let input = document.createElement("input");
+  input.className = "shadow-input";
+  input.addEventListener("input", () => button.setAttribute("aria-label", "Typed " + input.value));
+  root.appendChild(input);
+
   let div = document.createElement("div");
   h1.appendChild(div);
   root = div.attachShadow({mode: "open"});